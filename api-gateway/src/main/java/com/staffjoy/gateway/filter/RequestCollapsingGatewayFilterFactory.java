@@ -0,0 +1,326 @@
+package com.staffjoy.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 网关请求合并过滤器
+ *
+ * 排班发布后大量员工会在几秒内打开同一个公司的排班，这些请求完全相同。
+ * 该过滤器把同一路由上相同的、正在进行中的 GET 请求合并为一次后端调用：
+ * <pre>
+ * filters:
+ *   - name: RequestCollapsing
+ *     args:
+ *       timeout: 10s
+ *       maxBodySize: 2MB
+ * </pre>
+ *
+ * - 合并键 = 路径 + 排序后的查询参数 + Accept + 调用方身份（Authorization / Cookie / X-API-Key 摘要）
+ * - 第一个请求（leader）正常转发，后续相同请求（follower）等待并复用它的响应
+ * - leader 的响应写出后立即移除合并条目，之后到达的请求重新访问后端，不会返回过期数据
+ * - 同一路由上的写请求会丢弃相关路径的进行中条目，写之后到达的读请求不会复用写之前发出的调用
+ * - 非 2xx/404 响应、带 Set-Cookie 的响应、流式响应和超过 maxBodySize 的响应不共享，
+ *   此时 follower 各自转发到后端
+ *
+ * 与 ResponseCache 同时使用时，无论声明顺序如何都排在 ResponseCache 之后（ORDER），缓存命中的请求不参与合并。
+ */
+@Component
+public class RequestCollapsingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCollapsingGatewayFilterFactory.Config> {
+
+    public static final String COLLAPSED_HEADER = "X-Request-Collapsed";
+
+    /**
+     * 排在 ResponseCache（ResponseCacheGatewayFilterFactory.ORDER）之后、NettyWriteResponseFilter 之前
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    /**
+     * 共享响应中不复制给 follower 的头（由各自的响应重新生成）
+     */
+    private static final List<String> EXCLUDED_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION,
+            HttpHeaders.DATE);
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCollapsingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return Collections.singletonList("timeout");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Collapser collapser = new Collapser(config, meterRegistry);
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (HttpMethod.GET.equals(method)) {
+                return collapser.filterGet(exchange, chain);
+            }
+            if (!HttpMethod.HEAD.equals(method) && !HttpMethod.OPTIONS.equals(method)) {
+                collapser.discardRelated(exchange.getRequest().getPath().value());
+            }
+            return chain.filter(exchange);
+        }, ORDER);
+    }
+
+    /**
+     * 单个路由的合并状态
+     */
+    static class Collapser {
+
+        private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+        private final Duration timeout;
+        private final long maxBodyBytes;
+        private final Counter leaders;
+        private final Counter followers;
+        private final Counter fallbacks;
+
+        Collapser(Config config, MeterRegistry meterRegistry) {
+            this.timeout = config.getTimeout();
+            this.maxBodyBytes = config.getMaxBodySize().toBytes();
+            String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+            this.leaders = collapseCounter(meterRegistry, routeId, "leader");
+            this.followers = collapseCounter(meterRegistry, routeId, "follower");
+            this.fallbacks = collapseCounter(meterRegistry, routeId, "fallback");
+            Gauge.builder("gateway.collapse.in.flight", inFlight, Map::size)
+                    .description("正在进行中的合并请求数")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            // 合并率 = 复用他人响应的请求 / 全部参与合并的 GET 请求
+            Gauge.builder("gateway.collapse.ratio", this, Collapser::collapseRatio)
+                    .description("被合并的 GET 请求比例")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private static Counter collapseCounter(MeterRegistry meterRegistry, String routeId, String role) {
+            return Counter.builder("gateway.collapse.requests")
+                    .description("参与请求合并的 GET 请求数")
+                    .tag("route", routeId)
+                    .tag("role", role)
+                    .register(meterRegistry);
+        }
+
+        double collapseRatio() {
+            double total = leaders.count() + followers.count();
+            return total == 0 ? 0 : followers.count() / total;
+        }
+
+        Mono<Void> filterGet(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            String key = keyFor(request);
+            InFlight candidate = new InFlight(request.getPath().value(), Sinks.one());
+            InFlight existing = inFlight.putIfAbsent(key, candidate);
+            if (existing != null) {
+                return follow(exchange, chain, existing);
+            }
+            leaders.increment();
+            return lead(exchange, chain, key, candidate);
+        }
+
+        /**
+         * 写请求到达时丢弃相关路径的进行中条目（已经在等待的 follower 不受影响）
+         */
+        void discardRelated(String writePath) {
+            inFlight.values().removeIf(entry -> ResponseCache.isRelated(entry.path(), writePath));
+        }
+
+        private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, InFlight entry) {
+            AtomicBoolean completed = new AtomicBoolean();
+            ServerHttpResponse original = exchange.getResponse();
+            ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(original) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    HttpStatusCode status = getStatusCode();
+                    if (status == null || !isShareable(status, getHeaders())) {
+                        complete(key, entry, completed, null);
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(body)
+                            .map(joined -> {
+                                byte[] bytes = new byte[joined.readableByteCount()];
+                                joined.read(bytes);
+                                DataBufferUtils.release(joined);
+                                return bytes;
+                            })
+                            .defaultIfEmpty(new byte[0])
+                            .flatMap(bytes -> {
+                                SharedResponse shared = bytes.length <= maxBodyBytes
+                                        ? SharedResponse.of(status, getHeaders(), bytes)
+                                        : null;
+                                complete(key, entry, completed, shared);
+                                return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            });
+                }
+
+                @Override
+                public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                    // 流式响应（例如 NDJSON 导出）不共享
+                    complete(key, entry, completed, null);
+                    return super.writeAndFlushWith(body);
+                }
+            };
+            return chain.filter(exchange.mutate().response(decorated).build())
+                    // 出错、取消或没有响应体时，让等待者各自转发
+                    .doFinally(signal -> complete(key, entry, completed, null));
+        }
+
+        private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, InFlight entry) {
+            return entry.sink().asMono()
+                    .timeout(timeout)
+                    .map(Optional::of)
+                    .onErrorResume(e -> Mono.just(Optional.empty()))
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> {
+                        if (shared.isEmpty()) {
+                            fallbacks.increment();
+                            return chain.filter(exchange);
+                        }
+                        followers.increment();
+                        return write(exchange.getResponse(), shared.get());
+                    });
+        }
+
+        private void complete(String key, InFlight entry, AtomicBoolean completed, SharedResponse shared) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            // 先移除条目再发布响应：之后到达的请求会重新访问后端
+            inFlight.remove(key, entry);
+            if (shared != null) {
+                entry.sink().tryEmitValue(shared);
+            } else {
+                entry.sink().tryEmitEmpty();
+            }
+        }
+
+        private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+            response.setStatusCode(shared.status());
+            HttpHeaders headers = response.getHeaders();
+            headers.addAll(shared.headers());
+            headers.set(COLLAPSED_HEADER, "true");
+            headers.setContentLength(shared.body().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+        }
+
+        private static boolean isShareable(HttpStatusCode status, HttpHeaders headers) {
+            boolean statusShareable = status.is2xxSuccessful() || status.value() == 404;
+            return statusShareable && !headers.containsKey(HttpHeaders.SET_COOKIE);
+        }
+
+        static String keyFor(ServerHttpRequest request) {
+            HttpHeaders headers = request.getHeaders();
+            // ResponseCache.keyFor 已包含调用方身份（Authorization / Cookie / X-API-Key 摘要）
+            StringBuilder key = new StringBuilder(ResponseCache.keyFor(request));
+            List<String> accept = headers.get(HttpHeaders.ACCEPT);
+            if (accept != null) {
+                key.append("|accept=").append(String.join(",", accept));
+            }
+            return key.toString();
+        }
+    }
+
+    /**
+     * 进行中的请求
+     */
+    record InFlight(String path, Sinks.One<SharedResponse> sink) {
+    }
+
+    /**
+     * leader 的响应快照，供 follower 复用
+     */
+    record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+        static SharedResponse of(HttpStatusCode status, HttpHeaders source, byte[] body) {
+            HttpHeaders copy = new HttpHeaders();
+            source.forEach((name, values) -> {
+                if (EXCLUDED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    copy.put(name, List.copyOf(values));
+                }
+            });
+            return new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(copy), body);
+        }
+    }
+
+    /**
+     * 过滤器配置（按路由配置）
+     */
+    public static class Config implements HasRouteId {
+
+        /**
+         * follower 等待 leader 响应的最长时间，超时后自行转发
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+
+        /**
+         * 可共享的最大响应体
+         */
+        private DataSize maxBodySize = DataSize.ofMegabytes(2);
+
+        private String routeId;
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.staffjoy.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个路由的 GET 响应缓存
+ *
+ * - 按总字节数（maximumWeight）和 TTL 淘汰
+ * - 缓存键 = 路径 + 排序后的查询参数 + 调用方身份（Authorization / Cookie / X-API-Key 摘要），不同调用方互不共享
+ * - 写请求命中同一资源时，按路径层级使相关条目失效
+ * - 每次写请求分配递增的写序号并记录到相关路径上；GET 在转发前取得当前序号（generation），
+ *   保存响应时如果相关路径上有更新的写序号，说明响应可能是写之前读到的旧数据，不写入缓存
+ */
+public class ResponseCache {
+
+    /**
+     * 随缓存条目保存并在命中时返回的响应头
+     */
+    private static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.VARY);
+
+    /**
+     * 记录写序号的路径数上限；超出后淘汰的序号汇总到 evictedWriteFloor
+     */
+    private static final long MAX_WRITE_STAMPS = 10_000;
+
+    private final Cache<String, CachedResponse> cache;
+    private final long maxEntryBytes;
+
+    private final AtomicLong writeSequence = new AtomicLong();
+    /**
+     * 路径 -> 最近一次写序号
+     */
+    private final Cache<String, WriteStamp> writeStamps;
+    /**
+     * 已被淘汰的写序号中的最大值；早于它开始的 GET 无法确认是否过期，一律不缓存
+     */
+    private final AtomicLong evictedWriteFloor = new AtomicLong();
+
+    public ResponseCache(long maxSizeBytes, long maxEntryBytes, Duration timeToLive) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeBytes)
+                .weigher((String key, CachedResponse value) -> value.body().length + key.length())
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.writeStamps = Caffeine.newBuilder()
+                .maximumSize(MAX_WRITE_STAMPS)
+                .evictionListener((String path, WriteStamp stamp, RemovalCause cause) ->
+                        evictedWriteFloor.accumulateAndGet(Math.max(stamp.self(), stamp.subtree()), Math::max))
+                .build();
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry, String routeId) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponseCache", "route", routeId);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 当前写序号，GET 在转发到后端之前取得，保存响应时传给 put
+     */
+    public long generation() {
+        return writeSequence.get();
+    }
+
+    /**
+     * 保存响应；超过单条大小限制，或取得 generation 之后相关路径上有写请求时不缓存，返回 null
+     */
+    public CachedResponse put(String key, String path, HttpHeaders headers, byte[] body, String etag,
+                              long generation) {
+        if (body.length > maxEntryBytes || isStale(path, generation)) {
+            return null;
+        }
+        HttpHeaders stored = new HttpHeaders();
+        for (String name : STORED_HEADERS) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                stored.put(name, values);
+            }
+        }
+        CachedResponse entry = new CachedResponse(path, HttpHeaders.readOnlyHttpHeaders(stored), body, etag,
+                System.currentTimeMillis());
+        cache.put(key, entry);
+        // 检查和写入之间可能有写请求完成了失效，再检查一次，过期时撤销本次写入
+        if (isStale(path, generation)) {
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 写请求后使相关条目失效：同一路径、其子路径以及其上级集合路径
+     * 例如 PUT /api/companies/5 会使 /api/companies/5、/api/companies/5/...、/api/companies 失效
+     *
+     * 先记录写序号再删除条目，正在进行中的 GET 之后不会再把旧响应写入缓存
+     */
+    public void evictRelated(String writePath) {
+        long stamp = writeSequence.incrementAndGet();
+        String path = stripTrailingSlash(writePath);
+        // 并发写请求的合并顺序不确定，只保留较大的序号
+        writeStamps.asMap().merge(path, new WriteStamp(stamp, stamp), WriteStamp::max);
+        for (String parent = parentOf(path); parent != null; parent = parentOf(parent)) {
+            writeStamps.asMap().merge(parent, new WriteStamp(0, stamp), WriteStamp::max);
+        }
+        cache.asMap().values().removeIf(entry -> isRelated(entry.path(), writePath));
+    }
+
+    /**
+     * 取得 generation 之后，是否有与 readPath 相关（isRelated）的写请求
+     * - 同一路径或子路径上的写：readPath 的 subtree 序号
+     * - 上级路径上的写：各级上级路径的 self 序号
+     */
+    private boolean isStale(String readPath, long generation) {
+        if (generation < evictedWriteFloor.get()) {
+            return true;
+        }
+        String path = stripTrailingSlash(readPath);
+        WriteStamp stamp = writeStamps.getIfPresent(path);
+        if (stamp != null && stamp.subtree() > generation) {
+            return true;
+        }
+        for (String parent = parentOf(path); parent != null; parent = parentOf(parent)) {
+            stamp = writeStamps.getIfPresent(parent);
+            if (stamp != null && stamp.self() > generation) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String parentOf(String path) {
+        int index = path.lastIndexOf('/');
+        return index > 0 ? path.substring(0, index) : null;
+    }
+
+    /**
+     * readPath 是否受 writePath 上写请求的影响（同一路径、子路径或上级路径）
+     */
+    static boolean isRelated(String readPath, String writePath) {
+        String path = stripTrailingSlash(writePath);
+        String cachedPath = stripTrailingSlash(readPath);
+        return cachedPath.equals(path)
+                || cachedPath.startsWith(path + "/")
+                || path.startsWith(cachedPath + "/");
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public static String keyFor(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        Map<String, List<String>> sortedParams = new TreeMap<>(request.getQueryParams());
+        char separator = '?';
+        for (Map.Entry<String, List<String>> param : sortedParams.entrySet()) {
+            for (String value : param.getValue()) {
+                key.append(separator).append(param.getKey()).append('=').append(value == null ? "" : value);
+                separator = '&';
+            }
+        }
+        HttpHeaders headers = request.getHeaders();
+        appendDigest(key, "auth", headers.get(HttpHeaders.AUTHORIZATION));
+        appendDigest(key, "cookie", headers.get(HttpHeaders.COOKIE));
+        appendDigest(key, "apiKey", headers.get("X-API-Key"));
+        return key.toString();
+    }
+
+    private static void appendDigest(StringBuilder key, String name, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            key.append('|').append(name).append('=')
+                    .append(digest(String.join(";", values).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * 根据响应内容生成强 ETag
+     */
+    public static String etagFor(byte[] body) {
+        return "\"" + digest(body) + "\"";
+    }
+
+    /**
+     * If-None-Match 是否与 ETag 匹配（支持多个值、弱 ETag 和 *）
+     */
+    public static boolean matches(List<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty() || etag == null) {
+            return false;
+        }
+        String normalized = stripWeak(etag);
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String value = candidate.trim();
+                if (value.equals("*") || stripWeak(value).equals(normalized)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String stripTrailingSlash(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 缓存的响应
+     */
+    public record CachedResponse(String path, HttpHeaders headers, byte[] body, String etag, long createdAt) {
+    }
+
+    /**
+     * 路径上的写序号：self 为该路径本身的写，subtree 为该路径及其子路径的写
+     */
+    private record WriteStamp(long self, long subtree) {
+
+        WriteStamp max(WriteStamp other) {
+            return new WriteStamp(Math.max(self, other.self), Math.max(subtree, other.subtree));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.staffjoy.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 网关响应缓存过滤器
+ *
+ * 用于读多写少的路由（例如 /api/companies/**），在路由上配置：
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       timeToLive: 5m
+ *       maxSize: 10MB
+ *       maxEntrySize: 1MB
+ * </pre>
+ *
+ * - GET 200 响应按 路径 + 查询参数 + 调用方身份 缓存，命中时不再转发到后端
+ * - 为响应生成 ETag，请求携带匹配的 If-None-Match 时返回 304
+ * - 同一路由上的 PUT/POST/PATCH/DELETE 会使相关路径的缓存失效，写之前发出的 GET 的响应不再写入缓存
+ * - 后端返回 Cache-Control: no-store / private 或 Set-Cookie 的响应不缓存
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    /**
+     * 必须排在 NettyWriteResponseFilter 之前，才能拦截它写出的响应体；
+     * 同时排在 RequestCollapsing 之前，缓存命中的请求不参与合并
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return Arrays.asList("timeToLive", "maxSize");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        ResponseCache cache = new ResponseCache(config.getMaxSize().toBytes(),
+                config.getMaxEntrySize().toBytes(), config.getTimeToLive());
+        if (config.getRouteId() != null) {
+            cache.bindMetrics(meterRegistry, config.getRouteId());
+        }
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+            if (HttpMethod.GET.equals(method)) {
+                return filterGet(exchange, chain, cache);
+            }
+            if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+                return chain.filter(exchange);
+            }
+            // 写请求：转发前后都使相关缓存失效，避免并发读请求把旧数据重新写入缓存
+            String path = request.getPath().value();
+            cache.evictRelated(path);
+            return chain.filter(exchange).doFinally(signal -> cache.evictRelated(path));
+        }, ORDER);
+    }
+
+    private Mono<Void> filterGet(ServerWebExchange exchange, GatewayFilterChain chain, ResponseCache cache) {
+        ServerHttpRequest request = exchange.getRequest();
+        String key = ResponseCache.keyFor(request);
+        long generation = cache.generation();
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+
+        ResponseCache.CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            return writeCached(exchange.getResponse(), cached, ifNoneMatch);
+        }
+
+        ServerHttpResponse original = exchange.getResponse();
+        ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || status.value() != HttpStatus.OK.value() || !isCacheable(getHeaders())) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(body)
+                        .map(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+                            return bytes;
+                        })
+                        .defaultIfEmpty(new byte[0])
+                        .flatMap(bytes -> {
+                            String etag = getHeaders().getETag() != null
+                                    ? getHeaders().getETag()
+                                    : ResponseCache.etagFor(bytes);
+                            cache.put(key, request.getPath().value(), getHeaders(), bytes, etag, generation);
+                            getHeaders().setETag(etag);
+                            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                            if (ResponseCache.matches(ifNoneMatch, etag)) {
+                                return notModified(getDelegate());
+                            }
+                            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorated).build());
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, ResponseCache.CachedResponse cached,
+                                   List<String> ifNoneMatch) {
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        headers.set(HttpHeaders.AGE, String.valueOf((System.currentTimeMillis() - cached.createdAt()) / 1000));
+        if (ResponseCache.matches(ifNoneMatch, cached.etag())) {
+            return notModified(response);
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.addAll(cached.headers());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static Mono<Void> notModified(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        return response.setComplete();
+    }
+
+    private static boolean isCacheable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return true;
+        }
+        String lower = cacheControl.toLowerCase();
+        return !lower.contains(CacheControl.noStore().getHeaderValue()) && !lower.contains("private");
+    }
+
+    /**
+     * 过滤器配置（按路由配置）
+     */
+    public static class Config implements HasRouteId {
+
+        private Duration timeToLive = Duration.ofMinutes(5);
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+        private String routeId;
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
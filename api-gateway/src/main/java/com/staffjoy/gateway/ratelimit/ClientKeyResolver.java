@@ -0,0 +1,124 @@
+package com.staffjoy.gateway.ratelimit;
+
+import io.netty.handler.ipfilter.IpFilterRuleType;
+import io.netty.handler.ipfilter.IpSubnetFilterRule;
+import io.netty.util.NetUtil;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 限流客户端标识解析器
+ *
+ * - 已登记的 X-API-Key 按集成方限流（key:集成方名称），未登记的 Key 不能用来开新的令牌桶，按 IP 处理
+ * - 连接地址是可信代理时，从 X-Forwarded-For 右侧开始跳过可信代理，取第一个不可信地址作为客户端 IP；
+ *   否则直接使用连接地址，客户端自己伪造的 X-Forwarded-For 不生效
+ */
+public class ClientKeyResolver implements KeyResolver {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final List<IpSubnetFilterRule> trustedProxies;
+    /**
+     * API Key -> 集成方名称
+     */
+    private final Map<String, String> clientsByApiKey;
+
+    /**
+     * @param trustedProxies 可信代理地址（IP 或 CIDR）
+     * @param apiKeys        已登记的 API Key（集成方名称 -> Key）
+     */
+    public ClientKeyResolver(Collection<String> trustedProxies, Map<String, String> apiKeys) {
+        this.trustedProxies = new ArrayList<>();
+        for (String proxy : trustedProxies) {
+            this.trustedProxies.add(parseRule(proxy));
+        }
+        this.clientsByApiKey = new HashMap<>();
+        apiKeys.forEach((client, apiKey) -> {
+            if (apiKey != null && !apiKey.isBlank()) {
+                this.clientsByApiKey.put(apiKey.trim(), client);
+            }
+        });
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        String apiKey = request.getHeaders().getFirst(API_KEY_HEADER);
+        if (apiKey != null) {
+            String client = clientsByApiKey.get(apiKey.trim());
+            if (client != null) {
+                return Mono.just("key:" + client);
+            }
+        }
+        String clientIp = clientIp(request);
+        return Mono.just(clientIp != null ? "ip:" + clientIp : "anonymous");
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        String remoteIp = remoteAddress.getAddress().getHostAddress();
+        if (!isTrusted(remoteAddress.getAddress())) {
+            return remoteIp;
+        }
+        List<String> forwardedFor = new ArrayList<>();
+        List<String> headers = request.getHeaders().get(FORWARDED_FOR_HEADER);
+        if (headers != null) {
+            for (String header : headers) {
+                for (String value : header.split(",")) {
+                    if (!value.isBlank()) {
+                        forwardedFor.add(value.trim());
+                    }
+                }
+            }
+        }
+        // 最右侧的地址由离网关最近的可信代理写入，越往左越不可信
+        for (int i = forwardedFor.size() - 1; i >= 0; i--) {
+            InetAddress address = NetUtil.createInetAddressFromIpAddressString(forwardedFor.get(i));
+            if (address == null || !isTrusted(address)) {
+                return forwardedFor.get(i);
+            }
+        }
+        // 全部是可信代理（例如内网调用）：使用最早的地址
+        return forwardedFor.isEmpty() ? remoteIp : forwardedFor.get(0);
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        InetSocketAddress socketAddress = new InetSocketAddress(address, 0);
+        for (IpSubnetFilterRule rule : trustedProxies) {
+            if (rule.matches(socketAddress)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static IpSubnetFilterRule parseRule(String proxy) {
+        String value = proxy.trim();
+        int slash = value.indexOf('/');
+        String ip = slash < 0 ? value : value.substring(0, slash);
+        InetAddress address = NetUtil.createInetAddressFromIpAddressString(ip);
+        if (address == null) {
+            throw new IllegalArgumentException("可信代理必须是 IP 或 CIDR: " + proxy);
+        }
+        int maxPrefix = address.getAddress().length * 8;
+        int prefix = slash < 0 ? maxPrefix : Integer.parseInt(value.substring(slash + 1));
+        if (prefix < 0 || prefix > maxPrefix) {
+            throw new IllegalArgumentException("可信代理 CIDR 前缀无效: " + proxy);
+        }
+        return new IpSubnetFilterRule(address, prefix, IpFilterRuleType.ACCEPT);
+    }
+}
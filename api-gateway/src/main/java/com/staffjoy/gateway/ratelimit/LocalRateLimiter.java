@@ -0,0 +1,181 @@
+package com.staffjoy.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地（进程内）令牌桶限流器，不依赖 Redis
+ *
+ * 作为 RequestRateLimiter 过滤器的 rate-limiter 使用，每个 路由 + 客户端 一个令牌桶。
+ * 路由参数前缀为 local-rate-limiter，例如：
+ * <pre>
+ * - name: RequestRateLimiter
+ *   args:
+ *     rate-limiter: "#{@localRateLimiter}"
+ *     key-resolver: "#{@clientKeyResolver}"
+ *     local-rate-limiter.replenishRate: 50
+ *     local-rate-limiter.burstCapacity: 100
+ * </pre>
+ * 多实例部署时每个网关实例独立计数。
+ */
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final Config defaultConfig;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public LocalRateLimiter(ConfigurationService configurationService, Config defaultConfig,
+                            long maxBuckets, Duration bucketIdleTimeout, MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = defaultConfig;
+        this.meterRegistry = meterRegistry;
+        // 长时间没有请求的客户端，其令牌桶必然已满，直接丢弃即可，下次请求重新创建
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(bucketIdleTimeout)
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = configFor(routeId);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(routeId + ":" + id,
+                key -> new TokenBucket(config.getBurstCapacity(), now));
+        TokenBucket.Result result = bucket.tryConsume(config.getReplenishRate(), config.getBurstCapacity(),
+                config.getRequestedTokens(), now);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf((long) Math.floor(result.remaining())));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        if (!result.allowed()) {
+            long retryAfterSeconds = Math.max(1, (result.retryAfterNanos() + 999_999_999L) / 1_000_000_000L);
+            headers.put(RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds));
+        }
+
+        Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId)
+                .tag("outcome", result.allowed() ? "allowed" : "denied")
+                .register(meterRegistry)
+                .increment();
+
+        return Mono.just(new Response(result.allowed(), headers));
+    }
+
+    /**
+     * 当前状态（供 actuator 端点展示）
+     */
+    public Map<String, Object> snapshot() {
+        return snapshot(System.nanoTime());
+    }
+
+    /**
+     * 令牌数按 nowNanos 补充后再判断：被限流后一直没有新请求的桶，令牌其实已经恢复，不算被限流
+     */
+    Map<String, Object> snapshot(long nowNanos) {
+        Map<String, Map<String, Object>> routes = new LinkedHashMap<>();
+        getConfig().forEach((routeId, config) -> {
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("replenishRate", config.getReplenishRate());
+            route.put("burstCapacity", config.getBurstCapacity());
+            route.put("requestedTokens", config.getRequestedTokens());
+            route.put("activeBuckets", 0L);
+            route.put("throttledBuckets", 0L);
+            routes.put(routeId, route);
+        });
+        buckets.asMap().forEach((key, bucket) -> {
+            String routeId = key.substring(0, key.indexOf(':'));
+            Map<String, Object> route = routes.computeIfAbsent(routeId, id -> {
+                Map<String, Object> defaults = new LinkedHashMap<>();
+                defaults.put("replenishRate", defaultConfig.getReplenishRate());
+                defaults.put("burstCapacity", defaultConfig.getBurstCapacity());
+                defaults.put("requestedTokens", defaultConfig.getRequestedTokens());
+                defaults.put("activeBuckets", 0L);
+                defaults.put("throttledBuckets", 0L);
+                return defaults;
+            });
+            route.put("activeBuckets", (Long) route.get("activeBuckets") + 1);
+            Config config = configFor(routeId);
+            if (bucket.tokens(config.getReplenishRate(), config.getBurstCapacity(), nowNanos)
+                    < config.getRequestedTokens()) {
+                route.put("throttledBuckets", (Long) route.get("throttledBuckets") + 1);
+            }
+        });
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("totalBuckets", buckets.estimatedSize());
+        snapshot.put("routes", routes);
+        return snapshot;
+    }
+
+    private Config configFor(String routeId) {
+        Config config = getConfig().get(routeId);
+        return config != null ? config : defaultConfig;
+    }
+
+    /**
+     * 单个路由的限流配置
+     */
+    public static class Config {
+
+        /**
+         * 每秒补充的令牌数（稳态允许的请求速率）
+         */
+        private double replenishRate = 20;
+
+        /**
+         * 桶容量（允许的突发请求数）
+         */
+        private double burstCapacity = 40;
+
+        /**
+         * 每个请求消耗的令牌数
+         */
+        private double requestedTokens = 1;
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public double getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(double burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public double getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(double requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
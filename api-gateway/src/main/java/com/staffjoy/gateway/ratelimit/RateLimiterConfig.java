@@ -0,0 +1,40 @@
+package com.staffjoy.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * 本地限流配置类
+ * 注册 localRateLimiter / clientKeyResolver，RequestRateLimiter 过滤器默认使用它们
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimiterProperties.class)
+public class RateLimiterConfig {
+
+    @Bean
+    @Primary
+    public LocalRateLimiter localRateLimiter(ConfigurationService configurationService,
+                                             RateLimiterProperties properties,
+                                             MeterRegistry meterRegistry) {
+        LocalRateLimiter.Config defaultConfig = new LocalRateLimiter.Config()
+                .setReplenishRate(properties.getDefaultReplenishRate())
+                .setBurstCapacity(properties.getDefaultBurstCapacity());
+        return new LocalRateLimiter(configurationService, defaultConfig,
+                properties.getMaxBuckets(), properties.getBucketIdleTimeout(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public ClientKeyResolver clientKeyResolver(RateLimiterProperties properties) {
+        return new ClientKeyResolver(properties.getTrustedProxies(), properties.getApiKeys());
+    }
+
+    @Bean
+    public RateLimitersEndpoint rateLimitersEndpoint(LocalRateLimiter localRateLimiter) {
+        return new RateLimitersEndpoint(localRateLimiter);
+    }
+}
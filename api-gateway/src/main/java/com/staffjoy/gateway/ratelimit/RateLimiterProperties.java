@@ -0,0 +1,95 @@
+package com.staffjoy.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地限流器全局配置
+ * 对应配置前缀：staffjoy.rate-limiter
+ */
+@ConfigurationProperties(prefix = "staffjoy.rate-limiter")
+public class RateLimiterProperties {
+
+    /**
+     * 路由未单独配置时使用的每秒补充令牌数
+     */
+    private double defaultReplenishRate = 20;
+
+    /**
+     * 路由未单独配置时使用的桶容量
+     */
+    private double defaultBurstCapacity = 40;
+
+    /**
+     * 最多保留的令牌桶数量（路由 x 客户端）
+     */
+    private long maxBuckets = 100_000;
+
+    /**
+     * 令牌桶空闲多久后回收
+     */
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * 可信反向代理地址（IP 或 CIDR），只有来自这些地址的请求才按 X-Forwarded-For 识别客户端 IP
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * 已登记的 API Key（集成方名称 -> Key），只有登记过的 X-API-Key 按集成方限流
+     */
+    private Map<String, String> apiKeys = new LinkedHashMap<>();
+
+    public double getDefaultReplenishRate() {
+        return defaultReplenishRate;
+    }
+
+    public void setDefaultReplenishRate(double defaultReplenishRate) {
+        this.defaultReplenishRate = defaultReplenishRate;
+    }
+
+    public double getDefaultBurstCapacity() {
+        return defaultBurstCapacity;
+    }
+
+    public void setDefaultBurstCapacity(double defaultBurstCapacity) {
+        this.defaultBurstCapacity = defaultBurstCapacity;
+    }
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Duration getBucketIdleTimeout() {
+        return bucketIdleTimeout;
+    }
+
+    public void setBucketIdleTimeout(Duration bucketIdleTimeout) {
+        this.bucketIdleTimeout = bucketIdleTimeout;
+    }
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public Map<String, String> getApiKeys() {
+        return apiKeys;
+    }
+
+    public void setApiKeys(Map<String, String> apiKeys) {
+        this.apiKeys = apiKeys;
+    }
+}
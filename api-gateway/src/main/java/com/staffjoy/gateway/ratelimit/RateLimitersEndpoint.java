@@ -0,0 +1,25 @@
+package com.staffjoy.gateway.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * 限流状态 Actuator 端点
+ * GET /actuator/ratelimiters
+ */
+@Endpoint(id = "ratelimiters")
+public class RateLimitersEndpoint {
+
+    private final LocalRateLimiter localRateLimiter;
+
+    public RateLimitersEndpoint(LocalRateLimiter localRateLimiter) {
+        this.localRateLimiter = localRateLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rateLimiters() {
+        return localRateLimiter.snapshot();
+    }
+}
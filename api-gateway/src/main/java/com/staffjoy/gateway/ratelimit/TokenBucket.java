@@ -0,0 +1,68 @@
+package com.staffjoy.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 无锁令牌桶
+ *
+ * 状态（剩余令牌数、上次补充时间）保存在不可变对象中，通过 CAS 整体替换，
+ * 多个请求线程并发扣减时不需要加锁。
+ */
+public class TokenBucket {
+
+    private final AtomicReference<State> state;
+
+    public TokenBucket(double capacity, long nowNanos) {
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * 尝试扣减令牌
+     *
+     * @param replenishRate 每秒补充的令牌数
+     * @param capacity      桶容量（允许的突发请求数）
+     * @param requested     本次需要的令牌数
+     * @param nowNanos      当前时间（System.nanoTime()）
+     */
+    public Result tryConsume(double replenishRate, double capacity, double requested, long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double available = current.available(replenishRate, capacity, nowNanos);
+
+            boolean allowed = available >= requested;
+            double remaining = allowed ? available - requested : available;
+            State next = new State(remaining, Math.max(nowNanos, current.lastRefillNanos()));
+            if (state.compareAndSet(current, next)) {
+                long retryAfterNanos = allowed
+                        ? 0
+                        : (long) Math.ceil((requested - available) / replenishRate * 1_000_000_000.0);
+                return new Result(allowed, remaining, retryAfterNanos);
+            }
+        }
+    }
+
+    /**
+     * 按与 tryConsume 相同的补充规则计算到 nowNanos 为止可用的令牌数，不修改桶的状态
+     */
+    public double tokens(double replenishRate, double capacity, long nowNanos) {
+        return state.get().available(replenishRate, capacity, nowNanos);
+    }
+
+    private record State(double tokens, long lastRefillNanos) {
+
+        double available(double replenishRate, double capacity, long nowNanos) {
+            double elapsedSeconds = Math.max(0, nowNanos - lastRefillNanos) / 1_000_000_000.0;
+            return Math.min(capacity, tokens + elapsedSeconds * replenishRate);
+        }
+    }
+
+    /**
+     * 扣减结果
+     *
+     * @param allowed         是否放行
+     * @param remaining       扣减后剩余令牌数
+     * @param retryAfterNanos 被拒绝时，距离有足够令牌还需等待的时间
+     */
+    public record Result(boolean allowed, double remaining, long retryAfterNanos) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.staffjoy.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RequestCollapsing 的合并、回退和过滤器顺序
+ *
+ * 后端由 GatewayFilterChain 代替：带 X-Test-Leader 头的请求等待 release 后才响应，其它请求立即响应，
+ * 这样 follower 在 leader 响应之前到达
+ */
+class RequestCollapsingTest {
+
+    private static final String LEADER_HEADER = "X-Test-Leader";
+
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+
+    @Test
+    void followersShareLeaderResponse() throws Exception {
+        GatewayFilter filter = filter(Duration.ofSeconds(10));
+        CompletableFuture<Void> leader = run(filter, leaderRequest("/api/shifts?limit=5"), respond("shared"));
+
+        List<MockServerWebExchange> followers = new ArrayList<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts?limit=5"));
+            followers.add(follower);
+            pending.add(filter.filter(follower, respond("unexpected")).toFuture());
+        }
+        release.tryEmitEmpty();
+
+        leader.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Void> future : pending) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(backendCalls).hasValue(1);
+        for (MockServerWebExchange follower : followers) {
+            assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("shared");
+            assertThat(follower.getResponse().getHeaders().getFirst(RequestCollapsingGatewayFilterFactory.COLLAPSED_HEADER))
+                    .isEqualTo("true");
+        }
+    }
+
+    @Test
+    void followersFallBackWhenLeaderFails() throws Exception {
+        GatewayFilter filter = filter(Duration.ofSeconds(10));
+        GatewayFilterChain failingLeader = exchange -> {
+            backendCalls.incrementAndGet();
+            return release.asMono().then(Mono.error(new IllegalStateException("backend down")));
+        };
+        CompletableFuture<Void> leader = filter.filter(
+                MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts")), failingLeader).toFuture();
+
+        MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts"));
+        CompletableFuture<Void> pending = filter.filter(follower, respond("own")).toFuture();
+        release.tryEmitEmpty();
+
+        assertThat(leader).failsWithin(5, TimeUnit.SECONDS);
+        pending.get(5, TimeUnit.SECONDS);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("own");
+        assertThat(follower.getResponse().getHeaders().containsKey(RequestCollapsingGatewayFilterFactory.COLLAPSED_HEADER))
+                .isFalse();
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void followersFallBackWhenLeaderIsCancelled() throws Exception {
+        GatewayFilter filter = filter(Duration.ofSeconds(10));
+        Disposable leader = filter.filter(leaderRequest("/api/shifts"), respond("never")).subscribe();
+
+        MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts"));
+        CompletableFuture<Void> pending = filter.filter(follower, respond("own")).toFuture();
+        // 客户端断开：leader 的订阅被取消
+        leader.dispose();
+
+        pending.get(5, TimeUnit.SECONDS);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("own");
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void followerForwardsItselfAfterTimeout() throws Exception {
+        GatewayFilter filter = filter(Duration.ofMillis(100));
+        CompletableFuture<Void> leader = run(filter, leaderRequest("/api/shifts"), respond("slow"));
+
+        MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts"));
+        filter.filter(follower, respond("own")).block(Duration.ofSeconds(5));
+
+        assertThat(leader).isNotDone();
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("own");
+        assertThat(backendCalls).hasValue(2);
+        release.tryEmitEmpty();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void doesNotCollapseAcrossAcceptOrCredentials() throws Exception {
+        GatewayFilter filter = filter(Duration.ofSeconds(10));
+        CompletableFuture<Void> leader = run(filter, MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts")
+                .header(LEADER_HEADER, "true")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.COOKIE, "session=alice")), respond("alice-json"));
+
+        MockServerWebExchange otherAccept = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.COOKIE, "session=alice"));
+        filter.filter(otherAccept, respond("alice-ndjson")).block(Duration.ofSeconds(5));
+        MockServerWebExchange otherCaller = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.COOKIE, "session=bob"));
+        filter.filter(otherCaller, respond("bob-json")).block(Duration.ofSeconds(5));
+        MockServerWebExchange otherApiKey = MockServerWebExchange.from(MockServerHttpRequest.get("/api/shifts")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.COOKIE, "session=alice")
+                .header("X-API-Key", "partner"));
+        filter.filter(otherApiKey, respond("partner-json")).block(Duration.ofSeconds(5));
+
+        assertThat(otherAccept.getResponse().getBodyAsString().block()).isEqualTo("alice-ndjson");
+        assertThat(otherCaller.getResponse().getBodyAsString().block()).isEqualTo("bob-json");
+        assertThat(otherApiKey.getResponse().getBodyAsString().block()).isEqualTo("partner-json");
+        assertThat(backendCalls).hasValue(4);
+        release.tryEmitEmpty();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void responseCacheRunsBeforeCollapsing() {
+        int cacheOrder = ((OrderedGatewayFilter) new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry())
+                .apply(new ResponseCacheGatewayFilterFactory.Config())).getOrder();
+        int collapsingOrder = ((OrderedGatewayFilter) filter(Duration.ofSeconds(1))).getOrder();
+
+        assertThat(cacheOrder).isLessThan(collapsingOrder);
+        assertThat(collapsingOrder).isLessThan(NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER);
+    }
+
+    private static GatewayFilter filter(Duration timeout) {
+        RequestCollapsingGatewayFilterFactory.Config config = new RequestCollapsingGatewayFilterFactory.Config();
+        config.setTimeout(timeout);
+        return new RequestCollapsingGatewayFilterFactory(new SimpleMeterRegistry()).apply(config);
+    }
+
+    private static MockServerWebExchange leaderRequest(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri).header(LEADER_HEADER, "true"));
+    }
+
+    private static CompletableFuture<Void> run(GatewayFilter filter, MockServerWebExchange exchange,
+                                               GatewayFilterChain chain) {
+        return filter.filter(exchange, chain).toFuture();
+    }
+
+    /**
+     * 模拟后端：leader 等待 release，其它请求立即返回 body
+     */
+    private GatewayFilterChain respond(String body) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            Mono<Void> write = Mono.defer(() -> write(exchange.getResponse(), body));
+            return exchange.getRequest().getHeaders().containsKey(LEADER_HEADER)
+                    ? release.asMono().then(write)
+                    : write;
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, String body) {
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+}
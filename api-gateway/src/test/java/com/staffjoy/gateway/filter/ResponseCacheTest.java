@@ -0,0 +1,140 @@
+package com.staffjoy.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ResponseCache 的缓存键和写后失效
+ */
+class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(1024 * 1024, 64 * 1024, Duration.ofMinutes(5));
+
+    @Test
+    void keyIncludesCallerIdentity() {
+        String anonymous = ResponseCache.keyFor(MockServerHttpRequest.get("/api/companies").build());
+        String withCookie = ResponseCache.keyFor(MockServerHttpRequest.get("/api/companies")
+                .header(HttpHeaders.COOKIE, "session=a").build());
+        String otherCookie = ResponseCache.keyFor(MockServerHttpRequest.get("/api/companies")
+                .header(HttpHeaders.COOKIE, "session=b").build());
+        String withApiKey = ResponseCache.keyFor(MockServerHttpRequest.get("/api/companies")
+                .header("X-API-Key", "key-a").build());
+        String withAuthorization = ResponseCache.keyFor(MockServerHttpRequest.get("/api/companies")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer a").build());
+
+        assertThat(Set.of(anonymous, withCookie, otherCookie, withApiKey, withAuthorization)).hasSize(5);
+        assertThat(withCookie).doesNotContain("session=a");
+        assertThat(ResponseCache.keyFor(MockServerHttpRequest.get("/api/companies?b=2&a=1")
+                .header("X-API-Key", "key-a").build()))
+                .isEqualTo(ResponseCache.keyFor(MockServerHttpRequest.get("/api/companies?a=1&b=2")
+                        .header("X-API-Key", "key-a").build()));
+    }
+
+    @Test
+    void rejectsResponseReadBeforeRelatedWrite() {
+        long beforeWrite = cache.generation();
+        cache.evictRelated("/api/companies/5");
+
+        // 同一路径、上级集合路径、子路径上写之前发出的 GET 都不缓存
+        assertThat(put("/api/companies/5", beforeWrite)).isNull();
+        assertThat(put("/api/companies", beforeWrite)).isNull();
+        assertThat(put("/api/companies/5/shifts", beforeWrite)).isNull();
+        // 无关路径不受影响
+        assertThat(put("/api/companies/6", beforeWrite)).isNotNull();
+
+        long afterWrite = cache.generation();
+        assertThat(put("/api/companies/5", afterWrite)).isNotNull();
+        assertThat(put("/api/companies", afterWrite)).isNotNull();
+    }
+
+    @Test
+    void writeEvictsRelatedEntries() {
+        put("/api/companies", cache.generation());
+        put("/api/companies/5", cache.generation());
+        put("/api/companies/6", cache.generation());
+
+        cache.evictRelated("/api/companies/5/");
+
+        assertThat(cache.get("/api/companies")).isNull();
+        assertThat(cache.get("/api/companies/5")).isNull();
+        assertThat(cache.get("/api/companies/6")).isNotNull();
+    }
+
+    @Test
+    void filterDoesNotCacheGetThatRacedWithWrite() {
+        GatewayFilter filter = new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry())
+                .apply(new ResponseCacheGatewayFilterFactory.Config());
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        // 后端返回响应之前，同一资源上的 PUT 已经完成
+        GatewayFilterChain slowRead = exchange -> {
+            backendCalls.incrementAndGet();
+            MockServerWebExchange write = MockServerWebExchange.from(MockServerHttpRequest.put("/api/companies/5"));
+            return filter.filter(write, ignored -> Mono.empty())
+                    .then(Mono.defer(() -> respond(exchange.getResponse(), "before-write")));
+        };
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/companies/5"));
+        filter.filter(first, slowRead).block();
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("before-write");
+
+        GatewayFilterChain read = exchange -> {
+            backendCalls.incrementAndGet();
+            return respond(exchange.getResponse(), "after-write");
+        };
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/companies/5"));
+        filter.filter(second, read).block();
+        MockServerWebExchange third = MockServerWebExchange.from(MockServerHttpRequest.get("/api/companies/5"));
+        filter.filter(third, read).block();
+
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("after-write");
+        assertThat(third.getResponse().getBodyAsString().block()).isEqualTo("after-write");
+        assertThat(third.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("HIT");
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void filterKeepsCallersApart() {
+        GatewayFilter filter = new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry())
+                .apply(new ResponseCacheGatewayFilterFactory.Config());
+        GatewayFilterChain echoCookie = exchange -> respond(exchange.getResponse(),
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.COOKIE));
+
+        MockServerWebExchange alice = MockServerWebExchange.from(MockServerHttpRequest.get("/api/companies")
+                .header(HttpHeaders.COOKIE, "session=alice"));
+        filter.filter(alice, echoCookie).block();
+        MockServerWebExchange bob = MockServerWebExchange.from(MockServerHttpRequest.get("/api/companies")
+                .header(HttpHeaders.COOKIE, "session=bob"));
+        filter.filter(bob, echoCookie).block();
+
+        assertThat(bob.getResponse().getBodyAsString().block()).isEqualTo("session=bob");
+        assertThat(bob.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("MISS");
+    }
+
+    private ResponseCache.CachedResponse put(String path, long generation) {
+        return cache.put(path, path, new HttpHeaders(), path.getBytes(StandardCharsets.UTF_8), "\"etag\"", generation);
+    }
+
+    private static Mono<Void> respond(ServerHttpResponse response, String body) {
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+}
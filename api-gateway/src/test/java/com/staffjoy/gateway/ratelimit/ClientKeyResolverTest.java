@@ -0,0 +1,84 @@
+package com.staffjoy.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ClientKeyResolver 只信任已登记的 API Key 和可信代理写入的 X-Forwarded-For
+ */
+class ClientKeyResolverTest {
+
+    private final ClientKeyResolver resolver = new ClientKeyResolver(
+            List.of("10.0.0.0/8", "192.168.1.1"), Map.of("partner-a", "secret-a"));
+
+    @Test
+    void usesRegisteredApiKey() {
+        assertThat(resolve(request("203.0.113.7").header(ClientKeyResolver.API_KEY_HEADER, " secret-a ")))
+                .isEqualTo("key:partner-a");
+    }
+
+    @Test
+    void unregisteredApiKeyFallsBackToAddress() {
+        assertThat(resolve(request("203.0.113.7").header(ClientKeyResolver.API_KEY_HEADER, "random-123")))
+                .isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void ignoresForwardedForFromUntrustedPeer() {
+        assertThat(resolve(request("203.0.113.7").header("X-Forwarded-For", "198.51.100.1")))
+                .isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void usesRightmostUntrustedForwardedAddressBehindTrustedProxies() {
+        // 客户端伪造的最左侧地址不生效，取可信代理链之前的第一个地址
+        assertThat(resolve(request("10.1.2.3")
+                .header("X-Forwarded-For", "1.1.1.1, 198.51.100.1, 192.168.1.1")))
+                .isEqualTo("ip:198.51.100.1");
+        assertThat(resolve(request("192.168.1.1")
+                .header("X-Forwarded-For", "1.1.1.1")
+                .header("X-Forwarded-For", "198.51.100.1, 10.0.0.5")))
+                .isEqualTo("ip:198.51.100.1");
+    }
+
+    @Test
+    void trustedProxyWithoutForwardedForUsesProxyAddress() {
+        assertThat(resolve(request("10.1.2.3"))).isEqualTo("ip:10.1.2.3");
+        assertThat(resolve(request("10.1.2.3").header("X-Forwarded-For", "10.0.0.9")))
+                .isEqualTo("ip:10.0.0.9");
+    }
+
+    @Test
+    void noTrustedProxiesByDefault() {
+        ClientKeyResolver defaults = new ClientKeyResolver(List.of(), Map.of());
+        MockServerWebExchange exchange = MockServerWebExchange.from(request("127.0.0.1")
+                .header("X-Forwarded-For", "198.51.100.1")
+                .header(ClientKeyResolver.API_KEY_HEADER, "anything"));
+
+        assertThat(defaults.resolve(exchange).block()).isEqualTo("ip:127.0.0.1");
+    }
+
+    @Test
+    void rejectsInvalidTrustedProxy() {
+        assertThatThrownBy(() -> new ClientKeyResolver(List.of("proxy.internal"), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ClientKeyResolver(List.of("10.0.0.0/33"), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String resolve(MockServerHttpRequest.BaseBuilder<?> request) {
+        return resolver.resolve(MockServerWebExchange.from(request)).block();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request(String remoteIp) {
+        return MockServerHttpRequest.get("/api/shifts").remoteAddress(new InetSocketAddress(remoteIp, 40000));
+    }
+}
@@ -0,0 +1,51 @@
+package com.staffjoy.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LocalRateLimiter 的令牌桶扣减和 actuator 快照
+ */
+class LocalRateLimiterTest {
+
+    private final LocalRateLimiter limiter = new LocalRateLimiter(null,
+            new LocalRateLimiter.Config().setReplenishRate(1).setBurstCapacity(2),
+            1000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void deniesOnceBurstIsUsed() {
+        assertThat(limiter.isAllowed("shifts", "ip:1").block().isAllowed()).isTrue();
+        assertThat(limiter.isAllowed("shifts", "ip:1").block().isAllowed()).isTrue();
+
+        LocalRateLimiter.Response denied = limiter.isAllowed("shifts", "ip:1").block();
+        assertThat(denied.isAllowed()).isFalse();
+        assertThat(denied.getHeaders()).containsEntry(LocalRateLimiter.RETRY_AFTER_HEADER, "1");
+        // 其他客户端不受影响
+        assertThat(limiter.isAllowed("shifts", "ip:2").block().isAllowed()).isTrue();
+    }
+
+    @Test
+    void snapshotRefillsTokensBeforeCountingThrottledBuckets() {
+        limiter.isAllowed("shifts", "ip:1").block();
+        limiter.isAllowed("shifts", "ip:1").block();
+        limiter.isAllowed("shifts", "ip:2").block();
+
+        assertThat(route(limiter.snapshot(System.nanoTime())))
+                .containsEntry("activeBuckets", 2L)
+                .containsEntry("throttledBuckets", 1L);
+        // 之后没有新请求，桶里的令牌已经补充回来
+        assertThat(route(limiter.snapshot(System.nanoTime() + Duration.ofSeconds(1).toNanos())))
+                .containsEntry("activeBuckets", 2L)
+                .containsEntry("throttledBuckets", 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> route(Map<String, Object> snapshot) {
+        return ((Map<String, Map<String, Object>>) snapshot.get("routes")).get("shifts");
+    }
+}
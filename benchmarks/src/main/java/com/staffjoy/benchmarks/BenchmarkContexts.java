@@ -0,0 +1,135 @@
+package com.staffjoy.benchmarks;
+
+import com.staffjoy.shift.ShiftServiceApplication;
+import com.staffjoy.shift.client.UserServiceClient;
+import com.staffjoy.user.UserServiceApplication;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 为基准测试启动服务的 Spring 上下文
+ *
+ * - 使用 H2 内存数据库，表结构由 Hibernate 生成（Flyway 脚本是 PostgreSQL 专用的）
+ * - 默认不启动 Web 服务器（shiftServiceWithServer 在随机端口启动），关闭 Eureka / Config Server
+ * - 使用 spring.config.name=benchmark，不读取各服务自己的 application.yml
+ *   （两个服务的配置文件同名，在同一个 classpath 中会互相覆盖），所有配置都通过参数传入
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext shiftService(String... extraArgs) {
+        return new SpringApplicationBuilder(ShiftServiceApplication.class, StubUserServiceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(args("shiftdb", extraArgs));
+    }
+
+    static ConfigurableApplicationContext shiftServiceWithServer(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        args.addAll(Arrays.asList(extraArgs));
+        return new SpringApplicationBuilder(ShiftServiceApplication.class, StubUserServiceConfig.class)
+                .web(WebApplicationType.SERVLET)
+                .run(args("shiftdb", args.toArray(new String[0])));
+    }
+
+    static ConfigurableApplicationContext userService(String... extraArgs) {
+        return new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args("userdb", extraArgs));
+    }
+
+    private static String[] args(String database, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.name=benchmark",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.open-in-view=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "--spring.jpa.properties.hibernate.order_inserts=true",
+                "--spring.flyway.enabled=false",
+                // R2DBC 与 JDBC 访问同一个 H2 内存数据库；两个服务在同一个 classpath 中，
+                // user-service 也会看到 R2DBC，因此统一排除 R2DBC 自动配置（否则 JDBC DataSource 不会创建）
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database,
+                "--spring.r2dbc.username=sa",
+                "--spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+                "--spring.cloud.config.enabled=false",
+                "--spring.cloud.config.import-check.enabled=false",
+                "--spring.cloud.discovery.enabled=false",
+                "--eureka.client.enabled=false",
+                // 链路追踪和 JDBC 代理不计入被测代码的开销
+                "--management.tracing.enabled=false",
+                "--jdbc.datasource-proxy.enabled=false",
+                "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(extraArgs));
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * 用本地桩替换 UserServiceClient：所有用户都存在，不产生网络调用
+     */
+    @Configuration
+    static class StubUserServiceConfig {
+
+        /**
+         * Feign 注册的 UserServiceClient 默认也是 primary，与桩同时存在时无法注入，取消它的 primary
+         */
+        @Bean
+        static BeanDefinitionRegistryPostProcessor demoteFeignUserServiceClient() {
+            return new BeanDefinitionRegistryPostProcessor() {
+                @Override
+                public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                    if (registry.containsBeanDefinition(UserServiceClient.class.getName())) {
+                        registry.getBeanDefinition(UserServiceClient.class.getName()).setPrimary(false);
+                    }
+                }
+
+                @Override
+                public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+                }
+            };
+        }
+
+        @Bean
+        @Primary
+        UserServiceClient stubUserServiceClient() {
+            return new UserServiceClient() {
+                @Override
+                public UserResponse getUserById(Long id) {
+                    return user(id);
+                }
+
+                @Override
+                public BatchUserResponse getUsersByIds(BatchUserRequest request) {
+                    BatchUserResponse response = new BatchUserResponse();
+                    request.getIds().forEach(id -> response.getUsers().add(user(id)));
+                    return response;
+                }
+            };
+        }
+
+        private static UserServiceClient.UserResponse user(Long id) {
+            UserServiceClient.UserResponse user = new UserServiceClient.UserResponse();
+            user.setId(id);
+            user.setUsername("user" + id);
+            user.setEmail("user" + id + "@example.com");
+            user.setName("User " + id);
+            return user;
+        }
+    }
+}
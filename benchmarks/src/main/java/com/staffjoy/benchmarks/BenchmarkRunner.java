@@ -0,0 +1,37 @@
+package com.staffjoy.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * 基准测试入口
+ *
+ * 参数：
+ *   args[0] 结果文件路径（JMH JSON 格式）
+ *   args[1] 传给 JMH 的命令行参数（可选，例如 "ShiftServiceBenchmark -f 1 -wi 2"）
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String resultFile = args.length > 0 ? args[0] : "target/jmh-result.json";
+        String[] jmhArgs = args.length > 1 && !args[1].isBlank()
+                ? args[1].trim().split("\\s+")
+                : new String[0];
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(jmhArgs))
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+
+        System.out.println("JMH 参数: " + Arrays.toString(jmhArgs) + "，结果文件: " + resultFile);
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.staffjoy.benchmarks;
+
+import com.staffjoy.shift.config.InstrumentedConnectionManager;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign 传输层基准测试：默认 HttpURLConnection 客户端 vs Apache HttpClient 5 连接池
+ *
+ * 本地启动一个模拟 user-service 的 HTTP 服务（JDK HttpServer），32 个线程并发调用 GET /api/users/{id}。
+ * hc5 使用 shift-service 中实际使用的 InstrumentedConnectionManager（总连接 200，每路由 50）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class FeignTransportBenchmark {
+
+    private static final byte[] USER_JSON = ("{\"id\":1,\"username\":\"benchmark\","
+            + "\"email\":\"benchmark@example.com\",\"name\":\"Benchmark User\"}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"default", "hc5"})
+    public String client;
+
+    /**
+     * 模拟 user-service 的处理耗时
+     */
+    @Param({"0", "5"})
+    public int serverLatencyMillis;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpClient httpClient;
+    private StubUserApi api;
+
+    /**
+     * 只包含基准测试用到的接口
+     */
+    interface StubUserApi {
+
+        @RequestLine("GET /api/users/{id}")
+        String getUserById(@feign.Param("id") long id);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/users/", exchange -> {
+            if (serverLatencyMillis > 0) {
+                try {
+                    Thread.sleep(serverLatencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER_JSON.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USER_JSON);
+            }
+        });
+        server.start();
+
+        api = Feign.builder()
+                .client(createClient())
+                .target(StubUserApi.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public String getUserById() {
+        return api.getUserById(1L);
+    }
+
+    private Client createClient() {
+        if ("default".equals(client)) {
+            return new Client.Default(null, null);
+        }
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(
+                PoolConcurrencyPolicy.STRICT, PoolReusePolicy.FIFO, TimeValue.ofSeconds(900),
+                new SimpleMeterRegistry(), "benchmark");
+        connectionManager.setMaxTotal(200);
+        connectionManager.setDefaultMaxPerRoute(50);
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .build();
+        return new ApacheHttp5Client(httpClient);
+    }
+}
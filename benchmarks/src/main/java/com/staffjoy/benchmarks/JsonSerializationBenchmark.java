@@ -0,0 +1,83 @@
+package com.staffjoy.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staffjoy.shift.dto.ShiftView;
+import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.model.Shift;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shift / Company JSON 序列化基准测试
+ * ObjectMapper 使用与 Spring Boot 默认一致的 Jackson2ObjectMapperBuilder 构建
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Company company;
+    private List<Shift> shifts;
+    private List<ShiftView> shiftViews;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        company = new Company();
+        company.setId(1L);
+        company.setName("Benchmark Company");
+        company.setLegalName("Benchmark Company Ltd.");
+        company.setDescription("A company used for serialization benchmarks");
+        company.setWebsite("https://example.com");
+        company.setPhoneNumber("400-123-4567");
+        company.setAddress("1 Example Road");
+        company.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        company.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        shifts = new ArrayList<>(size);
+        shiftViews = new ArrayList<>(size);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 15, 9, 0);
+        for (int i = 0; i < size; i++) {
+            Shift shift = new Shift();
+            shift.setId((long) i + 1);
+            shift.setUserId((long) i % 50 + 1);
+            shift.setCompany(company);
+            shift.setStartTime(base.plusHours(i));
+            shift.setStopTime(base.plusHours(i + 8));
+            shift.setPublished(i % 2 == 0);
+            shift.setCreatedAt(base);
+            shift.setUpdatedAt(base);
+            shifts.add(shift);
+            shiftViews.add(ShiftView.from(shift));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCompany() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(company);
+    }
+
+    @Benchmark
+    public byte[] serializeShifts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shifts);
+    }
+
+    @Benchmark
+    public byte[] serializeShiftViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shiftViews);
+    }
+}
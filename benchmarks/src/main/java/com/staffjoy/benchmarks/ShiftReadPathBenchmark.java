@@ -0,0 +1,94 @@
+package com.staffjoy.benchmarks;
+
+import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.model.Shift;
+import com.staffjoy.shift.service.CompanyService;
+import com.staffjoy.shift.service.ShiftService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排班只读接口基准测试：Spring MVC + JPA（/api/shifts/between）vs R2DBC 流式接口（/api/shifts/reactive/between）
+ *
+ * 在随机端口启动 shift-service（H2 内存数据库），256 个线程并发请求同一时间窗口（约 1000 条排班）。
+ * tomcatThreads 限制 Tomcat 请求线程数，用于观察少量线程时两种实现的吞吐和延迟。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(256)
+@Fork(1)
+public class ShiftReadPathBenchmark {
+
+    private static final int USERS = 500;
+    private static final int SEED_SHIFTS = 2_000;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"mvc", "reactive"})
+    public String endpoint;
+
+    @Param({"200", "8"})
+    public int tomcatThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.shiftServiceWithServer("--server.tomcat.threads.max=" + tomcatThreads);
+        ShiftService shiftService = context.getBean(ShiftService.class);
+
+        Company company = new Company();
+        company.setName("Benchmark Company");
+        Long companyId = context.getBean(CompanyService.class).createCompany(company).getId();
+        for (int n = 0; n < SEED_SHIFTS; n++) {
+            Shift shift = new Shift();
+            shift.setUserId((long) (n % USERS + 1));
+            Company reference = new Company();
+            reference.setId(companyId);
+            shift.setCompany(reference);
+            // 每个用户每天一个班次，共 4 天
+            LocalDateTime start = BASE_TIME.plusDays(n / USERS).plusHours(9);
+            shift.setStartTime(start);
+            shift.setStopTime(start.plusHours(8));
+            shiftService.createShift(shift);
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String path = "reactive".equals(endpoint) ? "/api/shifts/reactive/between" : "/api/shifts/between";
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path
+                        + "?startTime=" + BASE_TIME + "&stopTime=" + BASE_TIME.plusDays(2)))
+                .GET()
+                .build();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getShiftsBetween() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,97 @@
+package com.staffjoy.benchmarks;
+
+import com.staffjoy.shift.dto.ShiftView;
+import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.model.Shift;
+import com.staffjoy.shift.service.CompanyService;
+import com.staffjoy.shift.service.ShiftService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ShiftService 热点路径基准测试（H2 内存数据库 + UserServiceClient 桩）
+ *
+ * userCacheEnabled=false 时每次 createShift 都会调用 UserServiceClient，
+ * 用于对比本地用户缓存的开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShiftServiceBenchmark {
+
+    private static final int USERS = 500;
+    private static final int SEED_SHIFTS = 2_000;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"true", "false"})
+    public boolean userCacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private ShiftService shiftService;
+    private Long companyId;
+    private Long updateTargetId;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.shiftService("--staffjoy.user-cache.enabled=" + userCacheEnabled);
+        shiftService = context.getBean(ShiftService.class);
+
+        Company company = new Company();
+        company.setName("Benchmark Company");
+        companyId = context.getBean(CompanyService.class).createCompany(company).getId();
+
+        for (int i = 0; i < SEED_SHIFTS; i++) {
+            Shift shift = shiftService.createShift(newShift());
+            updateTargetId = shift.getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Shift createShift() {
+        return shiftService.createShift(newShift());
+    }
+
+    @Benchmark
+    public Shift updateShift() {
+        long n = sequence.incrementAndGet();
+        Shift details = new Shift();
+        details.setPublished(null);
+        details.setStopTime(BASE_TIME.plusYears(10).plusHours(8 + n % 4));
+        details.setStartTime(BASE_TIME.plusYears(10));
+        return shiftService.updateShift(updateTargetId, details);
+    }
+
+    @Benchmark
+    public List<ShiftView> getShiftsBetween() {
+        // 一周的窗口
+        return shiftService.getShiftsBetween(BASE_TIME.plusDays(70), BASE_TIME.plusDays(77));
+    }
+
+    private Shift newShift() {
+        long n = sequence.incrementAndGet();
+        Shift shift = new Shift();
+        shift.setUserId(n % USERS + 1);
+        Company company = new Company();
+        company.setId(companyId);
+        shift.setCompany(company);
+        // 每个用户每天一个班次，避免同一用户时间重叠
+        LocalDateTime start = BASE_TIME.plusDays(n / USERS).plusHours(9);
+        shift.setStartTime(start);
+        shift.setStopTime(start.plusHours(8));
+        return shift;
+    }
+}
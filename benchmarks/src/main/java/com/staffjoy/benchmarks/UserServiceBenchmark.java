@@ -0,0 +1,48 @@
+package com.staffjoy.benchmarks;
+
+import com.staffjoy.user.model.User;
+import com.staffjoy.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserService 热点路径基准测试（H2 内存数据库）
+ * createUser 包含用户名、邮箱两次唯一性检查和一次插入
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.userService();
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User createUser() {
+        long n = sequence.incrementAndGet();
+        User user = new User();
+        user.setUsername("bench_user_" + n);
+        user.setEmail("bench_user_" + n + "@example.com");
+        user.setName("Bench User " + n);
+        user.setCompanyId(n % 10 + 1);
+        return userService.createUser(user);
+    }
+}
@@ -0,0 +1,45 @@
+package com.staffjoy.common.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 请求并发限制自动配置（虚拟线程模式下使用）
+ * 通过 staffjoy.concurrency-limit.enabled=true 启用，只对 Servlet 应用生效
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({Filter.class, MeterRegistry.class})
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "staffjoy.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitAutoConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        Semaphore permits = new Semaphore(properties.getMaxConcurrentRequests(), true);
+        Gauge.builder("staffjoy.concurrency.available", permits, Semaphore::availablePermits)
+                .description("剩余可用的并发请求许可数")
+                .register(meterRegistry);
+        Gauge.builder("staffjoy.concurrency.waiting", permits, Semaphore::getQueueLength)
+                .description("等待并发许可的请求数")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(permits, properties.getAcquireTimeout().toMillis()));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
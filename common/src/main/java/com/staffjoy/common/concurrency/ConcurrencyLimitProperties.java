@@ -0,0 +1,30 @@
+package com.staffjoy.common.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 请求并发限制配置
+ * 对应配置前缀：staffjoy.concurrency-limit
+ *
+ * 启用虚拟线程后 Tomcat 不再受线程池大小限制，所有请求都会同时去争抢 Hikari 连接。
+ * 通过该限制把同时处理的请求数控制在连接池能承受的范围内（通常为连接池大小的 1~3 倍）。
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 同时处理的最大请求数
+     */
+    private int maxConcurrentRequests = 64;
+
+    /**
+     * 等待许可的最长时间，超时返回 503
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,101 @@
+package com.staffjoy.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离自动配置
+ * 通过 staffjoy.datasource.replica.enabled=true 启用，在 DataSourceAutoConfiguration 之前注册 dataSource，
+ * 后者发现已有 DataSource 后不再创建默认连接池
+ *
+ * - primary：主库连接池，连接参数和池参数沿用 spring.datasource / spring.datasource.hikari
+ * - replica：只读副本连接池，参数见 staffjoy.datasource.replica / staffjoy.datasource.replica.hikari
+ * - dataSource：@Primary，JPA、Flyway、JdbcTemplate 都使用它，由 ReadReplicaRoutingDataSource 按事务类型选择连接池
+ *
+ * 两个连接池分别命名为 primary / replica，hikaricp.* 指标按 pool 标签区分。
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({HikariDataSource.class, LazyConnectionDataSourceProxy.class, MeterRegistry.class})
+@ConditionalOnProperty(prefix = "staffjoy.datasource.replica", name = "enabled", havingValue = "true")
+@EnableScheduling
+@EnableConfigurationProperties({ReadReplicaProperties.class, DataSourceProperties.class})
+public class ReadReplicaAutoConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("staffjoy.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReadReplicaProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // 副本在启动时不可用不影响启动：首次获取连接失败时抛出 SQLException（由 ReplicaLagMonitor 标记为不可用），
+        // 而不是连接池初始化异常
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReadReplicaProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReadReplicaProperties properties,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaLagMonitor, properties.isFallbackToPrimary(), meterRegistry));
+    }
+
+    /**
+     * 使用 JPA（Hibernate）时，每个事务结束后归还连接：默认配置下 open-in-view 会让 Session 在整个请求内
+     * 持有第一次获取的连接，请求里先执行只读事务时，后面的写事务会用到副本连接
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({HibernatePropertiesCustomizer.class, AvailableSettings.class})
+    static class HibernateConnectionHandlingConfiguration {
+
+        @Bean
+        public HibernatePropertiesCustomizer releaseConnectionAfterTransactionCustomizer() {
+            return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.staffjoy.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 只读副本数据源配置
+ * 对应配置前缀：staffjoy.datasource.replica
+ *
+ * 连接池参数写在 staffjoy.datasource.replica.hikari 下，与 spring.datasource.hikari 相同
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.datasource.replica")
+public class ReadReplicaProperties {
+
+    /**
+     * 是否启用只读副本；关闭时只使用 spring.datasource
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    /**
+     * 副本不可用或延迟超过 maxLag 时，只读事务是否改走主库；关闭时只读事务仍走副本，由调用方处理错误
+     */
+    private boolean fallbackToPrimary = true;
+
+    /**
+     * 允许的最大复制延迟，超过后视为不可用
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * 检查副本状态的间隔
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    /**
+     * 查询复制延迟（秒）的 SQL，结果为 NULL 时视为没有延迟；为空时只检查连接是否可用
+     */
+    private String lagQuery;
+}
@@ -0,0 +1,79 @@
+package com.staffjoy.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * 按事务类型路由的数据源
+ *
+ * - @Transactional(readOnly = true) 的事务使用只读副本
+ * - 其它事务和事务外的访问（Flyway、JdbcTemplate 等）使用主库
+ * - 副本被 ReplicaLagMonitor 标记为不可用、或获取副本连接失败时，按 fallbackToPrimary 决定是否改走主库
+ *
+ * 只读标记在事务开始之后才设置，必须包在 LazyConnectionDataSourceProxy 里，第一次执行 SQL 时才获取连接。
+ * 指标：staffjoy.datasource.routing（target = primary/replica，reason = write/read/fallback）
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor monitor;
+    private final boolean fallbackToPrimary;
+
+    private final Counter writeRoutes;
+    private final Counter readRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+                                        boolean fallbackToPrimary, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = monitor;
+        this.fallbackToPrimary = fallbackToPrimary;
+        this.writeRoutes = routeCounter(meterRegistry, "primary", "write");
+        this.readRoutes = routeCounter(meterRegistry, "replica", "read");
+        this.fallbackRoutes = routeCounter(meterRegistry, "primary", "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeRoutes.increment();
+            return primary.getConnection();
+        }
+        if (monitor.isAvailable() || !fallbackToPrimary) {
+            try {
+                Connection connection = replica.getConnection();
+                readRoutes.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable(e.toString());
+                if (!fallbackToPrimary) {
+                    throw e;
+                }
+            }
+        }
+        fallbackRoutes.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("ReadReplicaRoutingDataSource 不支持指定用户名和密码获取连接");
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("staffjoy.datasource.routing")
+                .description("按事务类型路由的连接获取次数")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
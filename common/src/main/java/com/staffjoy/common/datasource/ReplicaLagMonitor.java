@@ -0,0 +1,82 @@
+package com.staffjoy.common.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 定期检查只读副本是否可用、复制延迟是否在 maxLag 以内
+ *
+ * 指标：staffjoy.datasource.replica.available（1/0）、staffjoy.datasource.replica.lag（秒）
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final ReadReplicaProperties properties;
+
+    private volatile boolean available;
+    private volatile double lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replica, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.properties = properties;
+        Gauge.builder("staffjoy.datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("只读副本是否可用于只读事务")
+                .register(meterRegistry);
+        Gauge.builder("staffjoy.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("只读副本的复制延迟")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${staffjoy.datasource.replica.check-interval:PT5S}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            double lag = 0;
+            if (StringUtils.hasText(properties.getLagQuery())) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+                    if (resultSet.next()) {
+                        lag = resultSet.getDouble(1);
+                    }
+                }
+            } else if (!connection.isValid((int) properties.getCheckInterval().toSeconds())) {
+                throw new SQLException("只读副本连接不可用");
+            }
+            lagSeconds = lag;
+            if (lag * 1000 > properties.getMaxLag().toMillis()) {
+                markUnavailable("复制延迟 " + lag + " 秒，超过 " + properties.getMaxLag());
+            } else {
+                if (!available) {
+                    log.info("只读副本可用，复制延迟 {} 秒", lag);
+                }
+                available = true;
+            }
+        } catch (SQLException e) {
+            markUnavailable(e.toString());
+        }
+    }
+
+    /**
+     * 标记副本不可用，直到下一次检查通过
+     */
+    public void markUnavailable(String reason) {
+        if (available) {
+            log.warn("只读副本不可用: {}", reason);
+        }
+        available = false;
+    }
+}
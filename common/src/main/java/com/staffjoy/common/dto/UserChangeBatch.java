@@ -0,0 +1,43 @@
+package com.staffjoy.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * user-service 发件箱投递的一批用户变更事件（按发生顺序排列）
+ * 由 UserOutboxRelay 发送，作为 shift-service POST /api/internal/user-cache/events 的请求体
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeBatch {
+
+    private String source;
+
+    private List<Event> events = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event {
+
+        /**
+         * 发件箱事件ID，同一订阅方内单调递增
+         */
+        private Long id;
+
+        private Long userId;
+
+        /**
+         * CREATED / UPDATED / DELETED
+         */
+        private String type;
+
+        private LocalDateTime occurredAt;
+    }
+}
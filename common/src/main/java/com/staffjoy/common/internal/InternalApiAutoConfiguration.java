@@ -0,0 +1,47 @@
+package com.staffjoy.common.internal;
+
+import jakarta.servlet.Filter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 服务间内部接口自动配置
+ * - 注册 InternalApiProperties，调用方（例如 user-service 的发件箱投递）从中读取共享令牌
+ * - Servlet 应用中为 /api/internal/* 注册令牌校验过滤器
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(InternalApiProperties.class)
+public class InternalApiAutoConfiguration {
+
+    /**
+     * 内部接口路径（Servlet URL 模式，包含所有子路径）
+     */
+    public static final String INTERNAL_API_PATTERN = "/api/internal/*";
+
+    @Slf4j
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(Filter.class)
+    static class ServletInternalApiConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<InternalApiTokenFilter> internalApiTokenFilter(InternalApiProperties properties) {
+            if (properties.getToken() == null || properties.getToken().isBlank()) {
+                log.warn("未配置 staffjoy.internal-api.token，所有 {} 请求都将返回 403", INTERNAL_API_PATTERN);
+            }
+            FilterRegistrationBean<InternalApiTokenFilter> registration = new FilterRegistrationBean<>(
+                    new InternalApiTokenFilter(properties.getToken()));
+            registration.addUrlPatterns(INTERNAL_API_PATTERN);
+            // 在并发限制之前拒绝，未授权请求不占用许可
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+            return registration;
+        }
+    }
+}
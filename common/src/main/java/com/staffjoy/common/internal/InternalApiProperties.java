@@ -0,0 +1,26 @@
+package com.staffjoy.common.internal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 服务间内部接口配置
+ * 对应配置前缀：staffjoy.internal-api
+ *
+ * /api/internal/** 只供其它服务调用（例如 user-service 投递用户变更事件），
+ * 调用方在请求头 X-Internal-Token 中携带共享令牌，令牌不匹配或未配置时返回 403。
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.internal-api")
+public class InternalApiProperties {
+
+    /**
+     * 携带共享令牌的请求头
+     */
+    public static final String TOKEN_HEADER = "X-Internal-Token";
+
+    /**
+     * 共享令牌；为空时拒绝所有内部接口请求
+     */
+    private String token;
+}
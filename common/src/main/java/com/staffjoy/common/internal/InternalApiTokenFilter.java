@@ -0,0 +1,37 @@
+package com.staffjoy.common.internal;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 内部接口令牌校验过滤器
+ * 请求头 X-Internal-Token 与配置的共享令牌一致时才放行（常量时间比较）
+ */
+public class InternalApiTokenFilter extends OncePerRequestFilter {
+
+    private final byte[] token;
+
+    public InternalApiTokenFilter(String token) {
+        this.token = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String presented = request.getHeader(InternalApiProperties.TOKEN_HEADER);
+        if (token == null || presented == null
+                || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "内部接口需要有效的 " + InternalApiProperties.TOKEN_HEADER);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
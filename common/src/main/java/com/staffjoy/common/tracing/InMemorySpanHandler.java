@@ -0,0 +1,110 @@
+package com.staffjoy.common.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 进程内 Span 缓冲区
+ *
+ * 保存最近结束的 maxSpans 个 Span，超出后丢弃最旧的，不依赖外部 Zipkin/Tempo 等采集服务，
+ * 本地开发时通过 /actuator/spans 查看。只保存被采样的 Span（management.tracing.sampling.probability）。
+ */
+public class InMemorySpanHandler extends SpanHandler {
+
+    private final ConcurrentLinkedDeque<SpanRecord> spans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSpans;
+
+    public InMemorySpanHandler(int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            return true;
+        }
+        spans.addLast(SpanRecord.of(span));
+        if (size.incrementAndGet() > maxSpans && spans.pollFirst() != null) {
+            size.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * 最近的链路摘要，按开始时间倒序
+     */
+    public List<TraceSummary> recentTraces(int limit) {
+        Map<String, List<SpanRecord>> byTrace = spans.stream()
+                .collect(Collectors.groupingBy(SpanRecord::traceId, LinkedHashMap::new, Collectors.toList()));
+        return byTrace.entrySet().stream()
+                .map(entry -> TraceSummary.of(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(TraceSummary::startMicros).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 某条链路在本服务内的全部 Span，按开始时间排序
+     */
+    public List<SpanRecord> trace(String traceId) {
+        return spans.stream()
+                .filter(span -> span.traceId().equals(traceId))
+                .sorted(Comparator.comparingLong(SpanRecord::startMicros))
+                .toList();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void clear() {
+        spans.clear();
+        size.set(0);
+    }
+
+    /**
+     * 已结束的 Span 快照
+     */
+    public record SpanRecord(String traceId, String spanId, String parentId, String name, String kind,
+                             String localServiceName, String remoteServiceName,
+                             long startMicros, long durationMicros, String error, Map<String, String> tags) {
+
+        static SpanRecord of(MutableSpan span) {
+            Map<String, String> tags = new LinkedHashMap<>();
+            span.forEachTag((target, key, value) -> target.put(key, value), tags);
+            String error = span.error() != null ? span.error().toString() : tags.get("error");
+            return new SpanRecord(span.traceId(), span.id(), span.parentId(), span.name(),
+                    span.kind() != null ? span.kind().name() : null,
+                    span.localServiceName(), span.remoteServiceName(),
+                    span.startTimestamp(), span.finishTimestamp() - span.startTimestamp(), error, tags);
+        }
+    }
+
+    /**
+     * 链路摘要：根 Span（本服务内最早开始的 Span）和整体耗时
+     */
+    public record TraceSummary(String traceId, String rootName, int spanCount, long startMicros,
+                               long durationMicros, boolean error) {
+
+        static TraceSummary of(String traceId, List<SpanRecord> spans) {
+            List<SpanRecord> sorted = new ArrayList<>(spans);
+            sorted.sort(Comparator.comparingLong(SpanRecord::startMicros));
+            SpanRecord root = sorted.get(0);
+            long end = sorted.stream().mapToLong(span -> span.startMicros() + span.durationMicros()).max().orElse(0);
+            boolean error = sorted.stream().anyMatch(span -> span.error() != null);
+            return new TraceSummary(traceId, root.name(), sorted.size(), root.startMicros(),
+                    end - root.startMicros(), error);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.staffjoy.common.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Span 缓冲区 Actuator 端点
+ * GET /actuator/spans?limit=50   最近的链路摘要
+ * GET /actuator/spans/{traceId}  某条链路在本服务内的 Span
+ * DELETE /actuator/spans         清空缓冲区
+ */
+@Endpoint(id = "spans")
+public class SpansEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final InMemorySpanHandler spanHandler;
+
+    public SpansEndpoint(InMemorySpanHandler spanHandler) {
+        this.spanHandler = spanHandler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traces(@Nullable Integer limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("bufferedSpans", spanHandler.size());
+        result.put("traces", spanHandler.recentTraces(limit != null && limit > 0 ? limit : DEFAULT_LIMIT));
+        return result;
+    }
+
+    @ReadOperation
+    public List<InMemorySpanHandler.SpanRecord> trace(@Selector String traceId) {
+        return spanHandler.trace(traceId);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        spanHandler.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package com.staffjoy.common.tracing;
+
+import brave.handler.SpanHandler;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 链路追踪自动配置
+ * 注册进程内 Span 缓冲区（Brave 会把所有 SpanHandler Bean 加入 Tracing）和 /actuator/spans 端点，
+ * 使用 Brave 和 Actuator 的服务（Servlet 或 WebFlux）都会生效，通过 staffjoy.tracing.buffer.enabled=false 关闭
+ */
+@AutoConfiguration
+@ConditionalOnClass({SpanHandler.class, Endpoint.class})
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "staffjoy.tracing.buffer", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class TracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InMemorySpanHandler inMemorySpanHandler(TracingProperties properties) {
+        return new InMemorySpanHandler(properties.getBuffer().getMaxSpans());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SpansEndpoint spansEndpoint(InMemorySpanHandler inMemorySpanHandler) {
+        return new SpansEndpoint(inMemorySpanHandler);
+    }
+}
@@ -0,0 +1,32 @@
+package com.staffjoy.common.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 链路追踪配置
+ * 对应配置前缀：staffjoy.tracing
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.tracing")
+public class TracingProperties {
+
+    private Buffer buffer = new Buffer();
+
+    /**
+     * 进程内 Span 缓冲区
+     */
+    @Data
+    public static class Buffer {
+
+        /**
+         * 是否启用（/actuator/spans）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最多保留的 Span 数量，超出后丢弃最旧的
+         */
+        private int maxSpans = 10_000;
+    }
+}
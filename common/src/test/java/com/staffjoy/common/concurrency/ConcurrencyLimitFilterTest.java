@@ -0,0 +1,136 @@
+package com.staffjoy.common.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ConcurrencyLimitFilter 的许可归还时机：同步请求在过滤器返回时归还，异步请求在异步处理结束时归还
+ */
+class ConcurrencyLimitFilterTest {
+
+    private final Semaphore permits = new Semaphore(1, true);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(permits, 10);
+
+    @Test
+    void releasesPermitWhenSyncRequestReturns() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(),
+                (req, res) -> assertThat(permits.availablePermits()).isZero());
+
+        assertThat(permits.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void holdsPermitUntilAsyncRequestCompletes() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        // 流式响应还在写出，许可不能归还
+        assertThat(request.isAsyncStarted()).isTrue();
+        assertThat(permits.availablePermits()).isZero();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request(), rejected, failingChain());
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertThat(permits.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void releasesPermitOnceWhenAsyncRequestTimesOut() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+
+        // 超时之后容器还会发出完成事件，许可只能归还一次
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+
+        assertThat(permits.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsListeningWhenAsyncIsRestarted() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        MockAsyncContext first = (MockAsyncContext) request.getAsyncContext();
+
+        // 容器在再次 startAsync 时清除监听器，并通知原监听器 onStartAsync
+        AsyncContext second = request.startAsync();
+        for (AsyncListener listener : first.getListeners()) {
+            listener.onStartAsync(new AsyncEvent(second));
+        }
+        assertThat(permits.availablePermits()).isZero();
+
+        ((MockAsyncContext) second).complete();
+
+        assertThat(permits.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsActuatorEndpoints() throws Exception {
+        permits.acquire();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> res.getWriter().write("UP"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("UP");
+    }
+
+    @Test
+    void registersFilterOnlyInServletApplicationsWhenEnabled() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ConcurrencyLimitAutoConfiguration.class))
+                .withBean(SimpleMeterRegistry.class)
+                .withPropertyValues("staffjoy.concurrency-limit.enabled=true",
+                        "staffjoy.concurrency-limit.max-concurrent-requests=8")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(FilterRegistrationBean.class);
+                    assertThat(context.getBean(ConcurrencyLimitProperties.class).getMaxConcurrentRequests()).isEqualTo(8);
+                });
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ConcurrencyLimitAutoConfiguration.class))
+                .withBean(SimpleMeterRegistry.class)
+                .run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ConcurrencyLimitAutoConfiguration.class))
+                .withBean(SimpleMeterRegistry.class)
+                .withPropertyValues("staffjoy.concurrency-limit.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/shifts/reactive/between");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static FilterChain failingChain() {
+        return (req, res) -> {
+            throw new AssertionError("拿不到许可时不应继续处理请求");
+        };
+    }
+}
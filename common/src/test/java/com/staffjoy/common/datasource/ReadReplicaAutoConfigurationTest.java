@@ -0,0 +1,133 @@
+package com.staffjoy.common.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 读写分离路由：主库和副本是两个 H2 内存数据库，用 DATABASE() 区分查询落在哪个库上
+ */
+class ReadReplicaAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ReadReplicaAutoConfiguration.class,
+                    DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+                    JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "staffjoy.datasource.replica.enabled=true",
+                    "staffjoy.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+                    "staffjoy.datasource.replica.username=sa",
+                    "staffjoy.datasource.replica.check-interval=PT1H",
+                    "staffjoy.datasource.replica.max-lag=10s",
+                    "staffjoy.datasource.replica.lag-query=SELECT seconds FROM replica_lag");
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        contextRunner.run(context -> {
+            setReplicaLag(context, 0);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            double reads = routes(meterRegistry, "replica", "read");
+            double writes = routes(meterRegistry, "primary", "write");
+
+            assertThat(databaseIn(context, true)).isEqualTo("REPLICA");
+            assertThat(databaseIn(context, false)).isEqualTo("PRIMARY");
+            // 事务外的访问（Flyway、定时任务等）走主库
+            assertThat(context.getBean(JdbcTemplate.class).queryForObject("SELECT DATABASE()", String.class))
+                    .isEqualTo("PRIMARY");
+
+            assertThat(routes(meterRegistry, "replica", "read")).isEqualTo(reads + 1);
+            assertThat(routes(meterRegistry, "primary", "write")).isEqualTo(writes + 2);
+        });
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+        contextRunner.run(context -> {
+            setReplicaLag(context, 60);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            double fallbacks = routes(meterRegistry, "primary", "fallback");
+            assertThat(context.getBean(ReplicaLagMonitor.class).isAvailable()).isFalse();
+            assertThat(databaseIn(context, true)).isEqualTo("PRIMARY");
+            assertThat(routes(meterRegistry, "primary", "fallback")).isEqualTo(fallbacks + 1);
+
+            setReplicaLag(context, 1);
+            assertThat(context.getBean(ReplicaLagMonitor.class).isAvailable()).isTrue();
+            assertThat(databaseIn(context, true)).isEqualTo("REPLICA");
+        });
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        contextRunner
+                .withPropertyValues(
+                        "staffjoy.datasource.replica.url=jdbc:h2:mem:missing;IFEXISTS=TRUE",
+                        "staffjoy.datasource.replica.hikari.connection-timeout=250")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    context.getBean(ReplicaLagMonitor.class).check();
+                    assertThat(context.getBean(ReplicaLagMonitor.class).isAvailable()).isFalse();
+                    assertThat(databaseIn(context, true)).isEqualTo("PRIMARY");
+                });
+    }
+
+    @Test
+    void unreachableReplicaWithoutFallbackFailsReadOnlyTransactions() {
+        contextRunner
+                .withPropertyValues(
+                        "staffjoy.datasource.replica.url=jdbc:h2:mem:missing;IFEXISTS=TRUE",
+                        "staffjoy.datasource.replica.hikari.connection-timeout=250",
+                        "staffjoy.datasource.replica.fallback-to-primary=false")
+                .run(context -> {
+                    TransactionTemplate readOnly = new TransactionTemplate(
+                            context.getBean(PlatformTransactionManager.class));
+                    readOnly.setReadOnly(true);
+                    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                    assertThatThrownBy(() -> readOnly.execute(
+                                    status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class)))
+                            .isInstanceOf(RuntimeException.class);
+                    assertThat(databaseIn(context, false)).isEqualTo("PRIMARY");
+                });
+    }
+
+    /**
+     * 在副本库上写入模拟的复制延迟，并立即执行一次检查
+     */
+    private static void setReplicaLag(AssertableApplicationContext context, int seconds) {
+        JdbcTemplate replica = new JdbcTemplate(context.getBean("replicaDataSource", DataSource.class));
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds INT)");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (?)", seconds);
+        context.getBean(ReplicaLagMonitor.class).check();
+    }
+
+    private static String databaseIn(AssertableApplicationContext context, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static double routes(MeterRegistry meterRegistry, String target, String reason) {
+        return meterRegistry.get("staffjoy.datasource.routing").tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+}
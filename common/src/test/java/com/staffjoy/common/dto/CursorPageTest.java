@@ -0,0 +1,52 @@
+package com.staffjoy.common.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CursorPage 的游标编码和分页边界
+ */
+class CursorPageTest {
+
+    @Test
+    void cursorRoundTrips() {
+        String cursor = CursorPage.encodeCursor(42L);
+
+        assertThat(cursor).doesNotContain("42").doesNotContain("=");
+        assertThat(CursorPage.decodeCursor(cursor)).isEqualTo(42L);
+        assertThat(CursorPage.decodeCursor(null)).isZero();
+        assertThat(CursorPage.decodeCursor(" ")).isZero();
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> CursorPage.decodeCursor("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPage.decodeCursor(CursorPage.encodeCursor(1L).substring(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void clampsLimit() {
+        assertThat(CursorPage.clampLimit(null)).isEqualTo(CursorPage.DEFAULT_LIMIT);
+        assertThat(CursorPage.clampLimit(0)).isEqualTo(CursorPage.DEFAULT_LIMIT);
+        assertThat(CursorPage.clampLimit(10)).isEqualTo(10);
+        assertThat(CursorPage.clampLimit(10_000)).isEqualTo(CursorPage.MAX_LIMIT);
+    }
+
+    @Test
+    void nextCursorPointsAtLastItemOfPage() {
+        CursorPage<Long> last = CursorPage.of(List.of(1L, 2L), 2, Function.identity());
+        assertThat(last.getItems()).containsExactly(1L, 2L);
+        assertThat(last.getNext()).isNull();
+
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L, 3L), 2, Function.identity());
+        assertThat(page.getItems()).containsExactly(1L, 2L);
+        assertThat(CursorPage.decodeCursor(page.getNext())).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,65 @@
+package com.staffjoy.common.internal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 内部接口只接受携带正确共享令牌的请求
+ */
+class InternalApiAutoConfigurationTest {
+
+    @Test
+    void rejectsRequestsWithoutMatchingToken() throws Exception {
+        InternalApiTokenFilter filter = new InternalApiTokenFilter("secret");
+
+        assertThat(status(filter, null)).isEqualTo(403);
+        assertThat(status(filter, "wrong")).isEqualTo(403);
+        assertThat(status(filter, "secret")).isEqualTo(200);
+    }
+
+    @Test
+    void rejectsEverythingWhenTokenIsNotConfigured() throws Exception {
+        assertThat(status(new InternalApiTokenFilter(null), "")).isEqualTo(403);
+        assertThat(status(new InternalApiTokenFilter(" "), " ")).isEqualTo(403);
+    }
+
+    @Test
+    void registersFilterForInternalPathsInServletApplications() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(InternalApiAutoConfiguration.class))
+                .withPropertyValues("staffjoy.internal-api.token=secret")
+                .run(context -> {
+                    FilterRegistrationBean<?> registration = context.getBean(FilterRegistrationBean.class);
+                    assertThat(registration.getUrlPatterns()).containsExactly(InternalApiAutoConfiguration.INTERNAL_API_PATTERN);
+                    assertThat(context.getBean(InternalApiProperties.class).getToken()).isEqualTo("secret");
+                });
+        // 非 Servlet 应用（例如调用方只需要读取令牌）只注册配置
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(InternalApiAutoConfiguration.class))
+                .run(context -> {
+                    assertThat(context).hasSingleBean(InternalApiProperties.class);
+                    assertThat(context).doesNotHaveBean(FilterRegistrationBean.class);
+                });
+    }
+
+    private static int status(InternalApiTokenFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/internal/user-cache/events");
+        if (token != null) {
+            request.addHeader(InternalApiProperties.TOKEN_HEADER, token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean passed = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> passed.set(true));
+        assertThat(passed.get()).isEqualTo(response.getStatus() == 200);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,37 @@
+package com.staffjoy.common.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TracingAutoConfiguration 不依赖 Servlet 或 WebFlux，普通上下文中即可生效
+ */
+class TracingAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TracingAutoConfiguration.class));
+
+    @Test
+    void registersSpanBufferAndEndpoint() {
+        contextRunner
+                .withPropertyValues("staffjoy.tracing.buffer.max-spans=5")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(InMemorySpanHandler.class);
+                    assertThat(context).hasSingleBean(SpansEndpoint.class);
+                    assertThat(context.getBean(TracingProperties.class).getBuffer().getMaxSpans()).isEqualTo(5);
+                });
+    }
+
+    @Test
+    void backsOffWhenBufferDisabled() {
+        contextRunner
+                .withPropertyValues("staffjoy.tracing.buffer.enabled=false")
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(InMemorySpanHandler.class);
+                    assertThat(context).doesNotHaveBean(SpansEndpoint.class);
+                });
+    }
+}
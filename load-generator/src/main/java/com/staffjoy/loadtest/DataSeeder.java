@@ -0,0 +1,111 @@
+package com.staffjoy.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通过真实接口初始化测试数据
+ *
+ * - POST /api/companies 创建公司
+ * - POST /api/users 创建员工（companyId 指向所属公司）
+ * - POST /api/shifts/bulk 按周生成排班：员工分早班（6-14）、日班（9-17）、晚班（14-22）三种，
+ *   每周轮休两天（不同员工的休息日错开），第一周生成后发布
+ *
+ * 各公司并行初始化；用户名和公司名带运行标识，可以在同一个环境中重复运行。
+ * 每个初始化请求使用不同的调用方标识（模拟客户端地址），不受网关按客户端限流的影响。
+ */
+final class DataSeeder {
+
+    private static final LocalTime[] SHIFT_STARTS = {LocalTime.of(6, 0), LocalTime.of(9, 0), LocalTime.of(14, 0)};
+    private static final int SHIFT_HOURS = 8;
+
+    private final StaffjoyApi api;
+    private final LoadTestOptions options;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong requestSequence = new AtomicLong();
+
+    DataSeeder(StaffjoyApi api, LoadTestOptions options) {
+        this.api = api;
+        this.options = options;
+    }
+
+    Fixture seed() throws Exception {
+        LocalDate weekStart = Fixture.currentWeekStart();
+        List<Fixture.CompanyData> companies = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Fixture.CompanyData>> futures = new ArrayList<>();
+            for (int c = 0; c < options.companies; c++) {
+                int index = c;
+                futures.add(executor.submit(() -> seedCompany(index, weekStart)));
+            }
+            for (Future<Fixture.CompanyData> future : futures) {
+                companies.add(future.get());
+            }
+        }
+        List<Fixture.UserData> users = companies.stream().flatMap(company -> company.users().stream()).toList();
+        return new Fixture(companies, users, weekStart, options.weeks);
+    }
+
+    private Fixture.CompanyData seedCompany(int index, LocalDate weekStart) {
+        String companyName = "Load Test " + runId + "-" + index;
+        long companyId = api.post("POST /api/companies", "/api/companies",
+                        Map.of("name", companyName, "description", "压测数据"), seedKey(), System.nanoTime())
+                .json("创建公司").get("id").asLong();
+
+        List<Fixture.UserData> users = new ArrayList<>();
+        for (int u = 0; u < options.usersPerCompany; u++) {
+            String username = "lt" + runId + "c" + index + "u" + u;
+            String email = username + "@loadtest.example.com";
+            String name = "Employee " + index + "-" + u;
+            long userId = api.post("POST /api/users", "/api/users",
+                            Map.of("username", username, "email", email, "name", name, "companyId", companyId),
+                            seedKey(), System.nanoTime())
+                    .json("创建用户").get("id").asLong();
+            users.add(new Fixture.UserData(userId, companyId, username, email, name));
+        }
+
+        for (int week = 0; week < options.weeks; week++) {
+            LocalDate monday = weekStart.plusWeeks(week);
+            api.post("POST /api/shifts/bulk", "/api/shifts/bulk",
+                            Map.of("companyId", companyId, "shifts", weeklyPattern(users, monday)),
+                            seedKey(), System.nanoTime())
+                    .json("批量创建排班");
+        }
+        LocalDateTime from = weekStart.atStartOfDay();
+        api.post("POST /api/companies/{id}/publish", "/api/companies/" + companyId + "/publish?from=" + from
+                        + "&to=" + from.plusWeeks(1), Map.of(), seedKey(), System.nanoTime())
+                .json("发布排班");
+        return new Fixture.CompanyData(companyId, companyName, users);
+    }
+
+    private String seedKey() {
+        return "loadtest-seed-" + runId + "-" + requestSequence.incrementAndGet();
+    }
+
+    private static List<Map<String, Object>> weeklyPattern(List<Fixture.UserData> users, LocalDate monday) {
+        List<Map<String, Object>> shifts = new ArrayList<>();
+        for (int u = 0; u < users.size(); u++) {
+            LocalTime start = SHIFT_STARTS[u % SHIFT_STARTS.length];
+            for (int day = 0; day < 7; day++) {
+                // 每周上 5 天，休息日按员工错开
+                if ((day + u) % 7 >= 5) {
+                    continue;
+                }
+                LocalDateTime startTime = monday.plusDays(day).atTime(start);
+                shifts.add(Map.of(
+                        "userId", users.get(u).id(),
+                        "startTime", startTime,
+                        "stopTime", startTime.plusHours(SHIFT_HOURS)));
+            }
+        }
+        return shifts;
+    }
+}
@@ -0,0 +1,25 @@
+package com.staffjoy.loadtest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * 初始化后的测试数据：公司、员工和排班的起始周
+ *
+ * @param weekStart 第一周的周一（本周）
+ * @param weeks     已生成排班的周数；压测中新建的排班放在这之后，避免与已有排班重叠
+ */
+record Fixture(List<CompanyData> companies, List<UserData> users, LocalDate weekStart, int weeks) {
+
+    static LocalDate currentWeekStart() {
+        return LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    record CompanyData(long id, String name, List<UserData> users) {
+    }
+
+    record UserData(long id, long companyId, String username, String email, String name) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.staffjoy.loadtest;
+
+import com.staffjoy.shift.ShiftServiceApplication;
+import com.staffjoy.user.UserServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在当前 JVM 中启动 user-service 和 shift-service（H2 内存数据库，不需要 Eureka 和网关）
+ *
+ * - 与 benchmarks 相同，使用 spring.config.name=loadtest，不读取各服务自己的 application.yml，所有配置通过参数传入
+ * - 两个服务通过 simple discovery 互相发现：shift-service 的 Feign 调用 user-service，
+ *   user-service 的发件箱推送用户变更到 shift-service
+ */
+final class InProcessServices implements AutoCloseable {
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final int userServicePort = freePort();
+    private final int shiftServicePort = freePort();
+
+    InProcessServices(Map<String, String> serviceProperties) {
+        try {
+            contexts.add(new SpringApplicationBuilder(UserServiceApplication.class)
+                    .web(WebApplicationType.SERVLET)
+                    .run(args("userdb", userServicePort, serviceProperties,
+                            "--staffjoy.outbox.subscribers[0].name=shift-service",
+                            "--staffjoy.outbox.subscribers[0].url=http://shift-service/api/internal/user-cache/events")));
+            contexts.add(new SpringApplicationBuilder(ShiftServiceApplication.class)
+                    .web(WebApplicationType.SERVLET)
+                    .run(args("shiftdb", shiftServicePort, serviceProperties)));
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    String userServiceUrl() {
+        return "http://127.0.0.1:" + userServicePort;
+    }
+
+    String shiftServiceUrl() {
+        return "http://127.0.0.1:" + shiftServicePort;
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+
+    private String[] args(String database, int port, Map<String, String> serviceProperties, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.name=loadtest",
+                "--spring.main.banner-mode=off",
+                "--server.port=" + port,
+                "--server.address=127.0.0.1",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.open-in-view=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "--spring.jpa.properties.hibernate.order_inserts=true",
+                "--spring.flyway.enabled=false",
+                // R2DBC 与 JDBC 访问同一个 H2 内存数据库；两个服务在同一个 classpath 中，
+                // 统一排除 R2DBC 自动配置（否则 user-service 的 JDBC DataSource 不会创建）
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database,
+                "--spring.r2dbc.username=sa",
+                "--spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+                "--spring.cloud.config.enabled=false",
+                "--spring.cloud.config.import-check.enabled=false",
+                "--eureka.client.enabled=false",
+                "--staffjoy.internal-api.token=loadtest-internal-token",
+                "--spring.cloud.discovery.client.simple.instances.user-service[0].uri=" + userServiceUrl(),
+                "--spring.cloud.discovery.client.simple.instances.shift-service[0].uri=" + shiftServiceUrl(),
+                "--management.tracing.enabled=false",
+                "--jdbc.datasource-proxy.enabled=false",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        serviceProperties.forEach((name, value) -> args.add("--" + name + "=" + value));
+        return args.toArray(new String[0]);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法分配本地端口", e);
+        }
+    }
+}
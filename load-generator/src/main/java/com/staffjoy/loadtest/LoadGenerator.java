@@ -0,0 +1,163 @@
+package com.staffjoy.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 端到端压测入口
+ *
+ * 1. 通过 /api/companies、/api/users、/api/shifts 初始化公司、员工和每周排班（单独统计）
+ * 2. concurrency 个虚拟用户（虚拟线程）按场景的读写比例持续发送请求：预热后开始统计，持续 duration
+ * 3. 输出每个路由的请求数、吞吐量、p50/p99/p999/max 延迟和错误数，并写入 JSON 结果文件
+ *
+ * 目标可以是网关（docker-compose 启动后默认 http://localhost:8080），也可以用 --in-process 在当前 JVM 中启动服务。
+ * 参数见 LoadTestOptions。
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.out.println("压测参数: " + options);
+
+        InProcessServices services = options.inProcess ? new InProcessServices(options.serviceProperties) : null;
+        try {
+            String usersUrl = services != null ? services.userServiceUrl() : options.target;
+            String shiftsUrl = services != null ? services.shiftServiceUrl() : options.target;
+            run(options, usersUrl, shiftsUrl);
+        } finally {
+            if (services != null) {
+                services.close();
+            }
+        }
+    }
+
+    private static void run(LoadTestOptions options, String usersUrl, String shiftsUrl) throws Exception {
+        RouteStats seedStats = new RouteStats();
+        StaffjoyApi api = new StaffjoyApi(usersUrl, shiftsUrl, seedStats);
+        try {
+            long seedStart = System.nanoTime();
+            Fixture fixture = new DataSeeder(api, options).seed();
+            System.out.printf("初始化完成: %d 个公司, %d 个员工, %d 周排班, 耗时 %.1fs%n",
+                    fixture.companies().size(), fixture.users().size(), fixture.weeks(),
+                    (System.nanoTime() - seedStart) / 1e9);
+            List<RouteStats.RouteSummary> seedSummary = seedStats.summarize();
+            print("初始化", seedSummary);
+
+            RouteStats runStats = new RouteStats();
+            api.recordTo(runStats);
+            List<RouteStats.RouteSummary> runSummary = drive(options, new Workload(api, fixture), runStats);
+            print("压测（" + options.scenario.id() + "）", runSummary);
+            writeReport(options, api, seedSummary, runSummary);
+        } finally {
+            api.close();
+        }
+    }
+
+    /**
+     * 运行虚拟用户直到预热 + 压测时间结束
+     *
+     * rate > 0 时为开放模型：每个虚拟用户按固定间隔计划请求，响应变慢时不会减少发送的请求，
+     * 延迟从计划发送时间开始计算；rate = 0 时为闭环模型，收到响应后立即发送下一个请求。
+     */
+    private static List<RouteStats.RouteSummary> drive(LoadTestOptions options, Workload workload,
+                                                       RouteStats stats) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup.toNanos();
+        long deadline = measureStart + options.duration.toNanos();
+        long interval = options.rate > 0 ? (long) (options.concurrency * 1e9 / options.rate) : 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency; i++) {
+                Fixture.UserData user = workload.userFor(i);
+                // 错开各虚拟用户的第一次请求
+                long first = start + (interval > 0 ? interval * i / options.concurrency : 0);
+                executor.execute(() -> virtualUser(options, workload, user, first, interval, measureStart, deadline));
+            }
+            sleepUntil(measureStart);
+            stats.reset();
+            System.out.println("预热结束，开始统计");
+            executor.shutdown();
+            executor.awaitTermination(options.duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        }
+        return stats.summarize();
+    }
+
+    private static void virtualUser(LoadTestOptions options, Workload workload, Fixture.UserData user,
+                                    long first, long interval, long measureStart, long deadline) {
+        long next = first;
+        while (!Thread.currentThread().isInterrupted()) {
+            long intended;
+            if (interval > 0) {
+                intended = next;
+                next += interval;
+                sleepUntil(intended);
+            } else {
+                intended = System.nanoTime();
+            }
+            if (intended >= deadline) {
+                return;
+            }
+            double progress = intended < measureStart
+                    ? 0
+                    : (double) (intended - measureStart) / (deadline - measureStart);
+            workload.execute(options.scenario.mixAt(progress).pick(), user, intended);
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static void print(String title, List<RouteStats.RouteSummary> summaries) {
+        System.out.println();
+        System.out.println("== " + title + " ==");
+        System.out.printf("%-48s %8s %9s %9s %9s %9s %9s %7s %6s %6s %6s%n",
+                "route", "count", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "429", "4xx", "5xx", "error");
+        long total = 0;
+        double throughput = 0;
+        for (RouteStats.RouteSummary s : summaries) {
+            System.out.printf("%-48s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %6d %6d %6d%n",
+                    s.route(), s.count(), s.throughput(), s.p50(), s.p99(), s.p999(), s.max(),
+                    s.throttled(), s.clientErrors(), s.serverErrors(), s.errors());
+            total += s.count();
+            throughput += s.throughput();
+        }
+        System.out.printf("%-48s %8d %9.1f%n", "total", total, throughput);
+    }
+
+    private static void writeReport(LoadTestOptions options, StaffjoyApi api,
+                                    List<RouteStats.RouteSummary> seedSummary,
+                                    List<RouteStats.RouteSummary> runSummary) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", options.inProcess ? "in-process" : options.target);
+        report.put("scenario", options.scenario.id());
+        report.put("durationSeconds", options.duration.toSeconds());
+        report.put("warmupSeconds", options.warmup.toSeconds());
+        report.put("concurrency", options.concurrency);
+        report.put("rate", options.rate);
+        report.put("companies", options.companies);
+        report.put("usersPerCompany", options.usersPerCompany);
+        report.put("weeks", options.weeks);
+        report.put("seed", new ArrayList<>(seedSummary));
+        report.put("routes", new ArrayList<>(runSummary));
+
+        File file = new File(options.report);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        api.objectMapper().writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println();
+        System.out.println("结果文件: " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,115 @@
+package com.staffjoy.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测参数（--name=value，布尔参数可以只写 --name）
+ *
+ * <pre>
+ *   --target=http://localhost:8080   网关地址（docker-compose 默认端口）
+ *   --in-process                     在当前 JVM 中启动 user-service 和 shift-service（H2），不经过网关
+ *   --scenario=steady                steady / monday-morning / publish-spike
+ *   --duration=60s                   压测时长（不含预热）
+ *   --warmup=10s                     预热时长，期间的请求不计入结果
+ *   --concurrency=64                 并发虚拟用户数
+ *   --rate=0                         目标总请求速率（次/秒）；0 表示每个虚拟用户收到响应后立即发下一个请求
+ *   --companies=5                    初始化的公司数量
+ *   --users-per-company=50           每个公司的员工数量
+ *   --weeks=4                        从本周开始生成几周的排班
+ *   --report=target/loadtest-result.json
+ *   --service.xxx=yyy                进程内模式传给两个服务的配置（例如 --service.spring.threads.virtual.enabled=true）
+ * </pre>
+ */
+final class LoadTestOptions {
+
+    String target = "http://localhost:8080";
+    boolean inProcess;
+    Scenario scenario = Scenario.STEADY;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    int concurrency = 64;
+    double rate;
+    int companies = 5;
+    int usersPerCompany = 50;
+    int weeks = 4;
+    String report = "target/loadtest-result.json";
+    final Map<String, String> serviceProperties = new LinkedHashMap<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String token : split(args)) {
+            if (!token.startsWith("--")) {
+                throw new IllegalArgumentException("无法识别的参数: " + token);
+            }
+            int eq = token.indexOf('=');
+            String name = eq < 0 ? token.substring(2) : token.substring(2, eq);
+            String value = eq < 0 ? "true" : token.substring(eq + 1);
+            if (name.startsWith("service.")) {
+                options.serviceProperties.put(name.substring("service.".length()), value);
+                continue;
+            }
+            switch (name) {
+                case "target" -> options.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "in-process" -> options.inProcess = Boolean.parseBoolean(value);
+                case "scenario" -> options.scenario = Scenario.fromName(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "concurrency" -> options.concurrency = positive(name, Integer.parseInt(value));
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "companies" -> options.companies = positive(name, Integer.parseInt(value));
+                case "users-per-company" -> options.usersPerCompany = positive(name, Integer.parseInt(value));
+                case "weeks" -> options.weeks = positive(name, Integer.parseInt(value));
+                case "report" -> options.report = value;
+                default -> throw new IllegalArgumentException("未知参数: --" + name);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * exec-maven-plugin 把 -Dloadtest.args 作为一个参数传入，这里按空白拆开
+     */
+    private static List<String> split(String[] args) {
+        List<String> tokens = new ArrayList<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 支持 500ms / 30s / 5m / 1h
+     */
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        return Duration.parse("PT" + v.toUpperCase());
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " 必须大于 0");
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "target=" + (inProcess ? "in-process" : target)
+                + ", scenario=" + scenario.id()
+                + ", duration=" + duration + ", warmup=" + warmup
+                + ", concurrency=" + concurrency
+                + ", rate=" + (rate > 0 ? rate + "/s" : "closed-loop")
+                + ", companies=" + companies + ", usersPerCompany=" + usersPerCompany + ", weeks=" + weeks;
+    }
+}
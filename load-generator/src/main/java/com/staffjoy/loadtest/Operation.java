@@ -0,0 +1,36 @@
+package com.staffjoy.loadtest;
+
+/**
+ * 压测中的单个操作，route 为统计使用的路由名（方法 + 路径模板）
+ */
+enum Operation {
+
+    /** 员工查看本周公司排班 */
+    VIEW_CURRENT_WEEK("GET /api/shifts/company/{companyId}/schedule"),
+    /** 员工查看下周公司排班（发布后集中查看） */
+    VIEW_NEXT_WEEK("GET /api/shifts/company/{companyId}/schedule"),
+    /** 员工查看自己的排班 */
+    USER_SHIFTS("GET /api/shifts/user/{userId}"),
+    /** 管理员分页查看公司排班 */
+    COMPANY_SHIFTS("GET /api/shifts/company/{companyId}"),
+    /** 查看某一天的全部排班 */
+    SHIFTS_BETWEEN("GET /api/shifts/between"),
+    GET_USER("GET /api/users/{id}"),
+    GET_COMPANY("GET /api/companies/{id}"),
+    /** 管理员新增排班 */
+    CREATE_SHIFT("POST /api/shifts"),
+    /** 员工修改个人资料 */
+    UPDATE_USER("PUT /api/users/{id}"),
+    /** 管理员发布下周排班 */
+    PUBLISH_NEXT_WEEK("POST /api/companies/{id}/publish");
+
+    private final String route;
+
+    Operation(String route) {
+        this.route = route;
+    }
+
+    String route() {
+        return route;
+    }
+}
@@ -0,0 +1,106 @@
+package com.staffjoy.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按路由记录请求延迟（HdrHistogram，微秒，3 位有效数字）和结果
+ *
+ * 路由名是请求方法加路径模板，例如 "GET /api/shifts/user/{userId}"，同一模板的请求合并统计。
+ * 结果分为 2xx/3xx、429（网关限流）、其它 4xx、5xx 和连接/超时错误。
+ */
+final class RouteStats {
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private volatile long startNanos = System.nanoTime();
+
+    void record(String route, long latencyNanos, int status) {
+        Route stats = routes.computeIfAbsent(route, name -> new Route());
+        stats.latency.recordValue(Math.max(1, latencyNanos / 1_000));
+        if (status < 0) {
+            stats.errors.increment();
+        } else if (status == 429) {
+            stats.throttled.increment();
+        } else if (status >= 500) {
+            stats.serverErrors.increment();
+        } else if (status >= 400) {
+            stats.clientErrors.increment();
+        } else {
+            stats.ok.increment();
+        }
+    }
+
+    /**
+     * 丢弃已记录的数据（预热结束时调用）
+     */
+    void reset() {
+        for (Route route : routes.values()) {
+            route.latency.reset();
+            route.ok.reset();
+            route.throttled.reset();
+            route.clientErrors.reset();
+            route.serverErrors.reset();
+            route.errors.reset();
+        }
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * 生成从上次 reset 到现在的汇总，按请求数从多到少排序
+     */
+    List<RouteSummary> summarize() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        List<RouteSummary> summaries = new ArrayList<>();
+        for (Map.Entry<String, Route> entry : routes.entrySet()) {
+            Route route = entry.getValue();
+            Histogram histogram = route.latency.getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            summaries.add(new RouteSummary(
+                    entry.getKey(),
+                    count,
+                    count / seconds,
+                    route.ok.sum(),
+                    route.throttled.sum(),
+                    route.clientErrors.sum(),
+                    route.serverErrors.sum(),
+                    route.errors.sum(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        summaries.sort(Comparator.comparingLong(RouteSummary::count).reversed());
+        return summaries;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static final class Route {
+        private final Recorder latency = new Recorder(3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * 单个路由的汇总（延迟单位为毫秒）
+     */
+    record RouteSummary(String route, long count, double throughput,
+                        long ok, long throttled, long clientErrors, long serverErrors, long errors,
+                        double p50, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.staffjoy.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 读写比例模型
+ *
+ * - steady：日常负载，约 85% 读、15% 写
+ * - monday-morning：周一早上员工集中查看本周排班，几乎全是读
+ * - publish-spike：前 40% 时间为日常负载；随后 10% 时间管理员集中发布下周排班并补充排班；
+ *   之后员工集中查看下周排班
+ */
+enum Scenario {
+
+    STEADY("steady") {
+        @Override
+        Mix mixAt(double progress) {
+            return STEADY_MIX;
+        }
+    },
+    MONDAY_MORNING("monday-morning") {
+        @Override
+        Mix mixAt(double progress) {
+            return MONDAY_MORNING_MIX;
+        }
+    },
+    PUBLISH_SPIKE("publish-spike") {
+        @Override
+        Mix mixAt(double progress) {
+            if (progress < 0.4) {
+                return STEADY_MIX;
+            }
+            return progress < 0.5 ? PUBLISH_MIX : AFTER_PUBLISH_MIX;
+        }
+    };
+
+    private static final Mix STEADY_MIX = Mix.builder()
+            .add(Operation.VIEW_CURRENT_WEEK, 30)
+            .add(Operation.USER_SHIFTS, 25)
+            .add(Operation.COMPANY_SHIFTS, 10)
+            .add(Operation.SHIFTS_BETWEEN, 5)
+            .add(Operation.GET_USER, 10)
+            .add(Operation.GET_COMPANY, 5)
+            .add(Operation.CREATE_SHIFT, 10)
+            .add(Operation.UPDATE_USER, 3)
+            .add(Operation.PUBLISH_NEXT_WEEK, 2)
+            .build();
+
+    private static final Mix MONDAY_MORNING_MIX = Mix.builder()
+            .add(Operation.VIEW_CURRENT_WEEK, 55)
+            .add(Operation.USER_SHIFTS, 30)
+            .add(Operation.GET_USER, 5)
+            .add(Operation.GET_COMPANY, 5)
+            .add(Operation.COMPANY_SHIFTS, 4)
+            .add(Operation.CREATE_SHIFT, 1)
+            .build();
+
+    private static final Mix PUBLISH_MIX = Mix.builder()
+            .add(Operation.PUBLISH_NEXT_WEEK, 40)
+            .add(Operation.CREATE_SHIFT, 20)
+            .add(Operation.VIEW_NEXT_WEEK, 25)
+            .add(Operation.USER_SHIFTS, 15)
+            .build();
+
+    private static final Mix AFTER_PUBLISH_MIX = Mix.builder()
+            .add(Operation.VIEW_NEXT_WEEK, 55)
+            .add(Operation.USER_SHIFTS, 35)
+            .add(Operation.VIEW_CURRENT_WEEK, 5)
+            .add(Operation.GET_USER, 5)
+            .build();
+
+    private final String id;
+
+    Scenario(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    /**
+     * @param progress 正式压测已进行的比例（0-1，预热期间为 0）
+     */
+    abstract Mix mixAt(double progress);
+
+    static Scenario fromName(String name) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.id.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("未知场景: " + name
+                        + "，可选: steady / monday-morning / publish-spike"));
+    }
+
+    /**
+     * 按权重随机选择操作
+     */
+    static final class Mix {
+
+        private final Operation[] operations;
+        private final int[] cumulativeWeights;
+
+        private Mix(Map<Operation, Integer> weights) {
+            this.operations = weights.keySet().toArray(new Operation[0]);
+            this.cumulativeWeights = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += weights.get(operations[i]);
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        Operation pick() {
+            int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (value < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+
+        static Builder builder() {
+            return new Builder();
+        }
+
+        static final class Builder {
+
+            private final Map<Operation, Integer> weights = new LinkedHashMap<>();
+
+            Builder add(Operation operation, int weight) {
+                weights.put(operation, weight);
+                return this;
+            }
+
+            Mix build() {
+                return new Mix(weights);
+            }
+        }
+    }
+}
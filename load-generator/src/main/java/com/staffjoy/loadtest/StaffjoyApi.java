@@ -0,0 +1,165 @@
+package com.staffjoy.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 通过 HTTP 调用 /api/users、/api/companies、/api/shifts，并按路由记录延迟
+ *
+ * 经过网关时两个基础地址相同；进程内模式下 /api/users 发往 user-service，其它发往 shift-service。
+ * 延迟从"计划发送时间"开始计算：固定速率模式下请求因前一个请求变慢而推迟发送时，推迟的时间也计入延迟
+ * （避免 coordinated omission 让结果偏乐观）。
+ *
+ * 带调用方标识的请求同时发送 X-API-Key 和由标识生成的 X-Forwarded-For（10.x.x.x）：网关只对已登记的
+ * API Key 按集成方限流，压测时把压测进程的地址配置为可信代理，每个虚拟用户就按自己的"客户端 IP"限流。
+ */
+final class StaffjoyApi {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String usersBaseUrl;
+    private final String shiftsBaseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private volatile RouteStats stats;
+
+    StaffjoyApi(String usersBaseUrl, String shiftsBaseUrl, RouteStats stats) {
+        this.usersBaseUrl = usersBaseUrl;
+        this.shiftsBaseUrl = shiftsBaseUrl;
+        this.stats = stats;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * 切换记录的目标（初始化数据和正式压测分开统计）
+     */
+    void recordTo(RouteStats stats) {
+        this.stats = stats;
+    }
+
+    Response get(String route, String path, String apiKey, long intendedNanos) {
+        return send(route, request(path, apiKey).GET(), intendedNanos);
+    }
+
+    Response post(String route, String path, Object body, String apiKey, long intendedNanos) {
+        return send(route, request(path, apiKey)
+                .header("Content-Type", "application/json")
+                .POST(jsonBody(body)), intendedNanos);
+    }
+
+    Response put(String route, String path, Object body, String apiKey, long intendedNanos) {
+        return send(route, request(path, apiKey)
+                .header("Content-Type", "application/json")
+                .PUT(jsonBody(body)), intendedNanos);
+    }
+
+    void close() {
+        httpClient.close();
+    }
+
+    private HttpRequest.Builder request(String path, String apiKey) {
+        String baseUrl = path.startsWith("/api/users") ? usersBaseUrl : shiftsBaseUrl;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (apiKey != null) {
+            builder.header(API_KEY_HEADER, apiKey);
+            builder.header(FORWARDED_FOR_HEADER, clientAddress(apiKey));
+        }
+        return builder;
+    }
+
+    /**
+     * 调用方标识对应的模拟客户端地址
+     */
+    static String clientAddress(String apiKey) {
+        int hash = apiKey.hashCode();
+        return "10." + ((hash >>> 16) & 0xff) + "." + ((hash >>> 8) & 0xff) + "." + (hash & 0xff);
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("请求体序列化失败", e);
+        }
+    }
+
+    private Response send(String route, HttpRequest.Builder builder, long intendedNanos) {
+        int status = -1;
+        byte[] body = null;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException e) {
+            // 连接失败或超时：记为错误，由调用方决定是否继续
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stats.record(route, System.nanoTime() - intendedNanos, status);
+        }
+        return new Response(status, body);
+    }
+
+    /**
+     * 响应（status = -1 表示连接失败或超时）
+     */
+    final class Response {
+
+        private final int status;
+        private final byte[] body;
+
+        private Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        int status() {
+            return status;
+        }
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * 解析响应体；非 2xx 时抛出异常（仅用于初始化数据）
+         */
+        JsonNode json(String what) {
+            if (!isSuccess()) {
+                throw new IllegalStateException(what + " 失败，HTTP " + status
+                        + (body != null && body.length > 0 ? ": " + new String(body) : ""));
+            }
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(what + " 的响应不是合法的 JSON", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.staffjoy.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 把 Operation 转换为具体请求
+ *
+ * 每个虚拟用户对应一个员工（调用方标识为该员工，网关按客户端限流时与真实用户一致），
+ * 查询自己公司和自己的排班；管理类操作（新增、发布排班）也作用于自己所在的公司。
+ */
+final class Workload {
+
+    private final StaffjoyApi api;
+    private final Fixture fixture;
+    private final AtomicLong shiftSequence = new AtomicLong();
+    private final AtomicLong profileSequence = new AtomicLong();
+
+    Workload(StaffjoyApi api, Fixture fixture) {
+        this.api = api;
+        this.fixture = fixture;
+    }
+
+    /**
+     * 第 index 个虚拟用户（按顺序轮流对应各公司员工）
+     */
+    Fixture.UserData userFor(int index) {
+        return fixture.users().get(index % fixture.users().size());
+    }
+
+    void execute(Operation operation, Fixture.UserData user, long intendedNanos) {
+        String apiKey = "loadtest-user-" + user.id();
+        String route = operation.route();
+        LocalDate weekStart = fixture.weekStart();
+        switch (operation) {
+            case VIEW_CURRENT_WEEK -> api.get(route, "/api/shifts/company/" + user.companyId()
+                    + "/schedule?week=" + weekStart, apiKey, intendedNanos);
+            case VIEW_NEXT_WEEK -> api.get(route, "/api/shifts/company/" + user.companyId()
+                    + "/schedule?week=" + weekStart.plusWeeks(1), apiKey, intendedNanos);
+            case USER_SHIFTS -> api.get(route, "/api/shifts/user/" + user.id(), apiKey, intendedNanos);
+            case COMPANY_SHIFTS -> api.get(route, "/api/shifts/company/" + user.companyId() + "?limit=100",
+                    apiKey, intendedNanos);
+            case SHIFTS_BETWEEN -> {
+                LocalDateTime day = weekStart.plusDays(ThreadLocalRandom.current().nextInt(7)).atStartOfDay();
+                api.get(route, "/api/shifts/between?startTime=" + day + "&stopTime=" + day.plusDays(1),
+                        apiKey, intendedNanos);
+            }
+            case GET_USER -> api.get(route, "/api/users/" + user.id(), apiKey, intendedNanos);
+            case GET_COMPANY -> api.get(route, "/api/companies/" + user.companyId(), apiKey, intendedNanos);
+            case CREATE_SHIFT -> createShift(route, apiKey, intendedNanos);
+            case UPDATE_USER -> api.put(route, "/api/users/" + user.id(), Map.of(
+                    "username", user.username(),
+                    "email", user.email(),
+                    "name", user.name(),
+                    "phoneNumber", "1380000" + String.format("%04d", profileSequence.incrementAndGet() % 10_000)),
+                    apiKey, intendedNanos);
+            case PUBLISH_NEXT_WEEK -> {
+                LocalDateTime from = weekStart.plusWeeks(1).atStartOfDay();
+                api.post(route, "/api/companies/" + user.companyId() + "/publish?from=" + from
+                        + "&to=" + from.plusWeeks(1), Map.of(), apiKey, intendedNanos);
+            }
+        }
+    }
+
+    /**
+     * 新排班放在已生成的周之后：第 n 个排班属于第 n % 员工数 个员工，
+     * 每个员工每天最多一个，不会与已有排班重叠
+     */
+    private void createShift(String route, String apiKey, long intendedNanos) {
+        long n = shiftSequence.getAndIncrement();
+        Fixture.UserData owner = fixture.users().get((int) (n % fixture.users().size()));
+        LocalDateTime start = fixture.weekStart().plusWeeks(fixture.weeks())
+                .plusDays(n / fixture.users().size())
+                .atTime(9, 0);
+        api.post(route, "/api/shifts", Map.of(
+                        "userId", owner.id(),
+                        "company", Map.of("id", owner.companyId()),
+                        "startTime", start,
+                        "stopTime", start.plusHours(8)),
+                apiKey, intendedNanos);
+    }
+}
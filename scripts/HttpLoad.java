@@ -0,0 +1,109 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 简易 HTTP 压测工具（没有安装 hey / ab 时由 compare-virtual-threads.sh 使用）
+ * 固定数量的并发客户端在持续时间内循环发送 GET 请求，输出 QPS、延迟分位数和状态码分布
+ *
+ * 使用方法: java scripts/HttpLoad.java <url> [concurrency] [duration]
+ *   例如:   java scripts/HttpLoad.java http://localhost:8082/api/shifts?limit=50 400 30s
+ *
+ * 输出格式与 hey 保持一致（Requests/sec、99% in），便于脚本用同样的方式提取结果
+ */
+public class HttpLoad {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("用法: java HttpLoad.java <url> [concurrency] [duration]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        Duration duration = Duration.parse("PT" + (args.length > 2 ? args[2] : "30s").toUpperCase());
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(20)).GET().build();
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<Worker>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> new Worker().run(client, request, deadline)));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // 汇总各客户端的结果
+        long[] latencies = new long[0];
+        Map<String, Long> statuses = new TreeMap<>();
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            worker.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("Summary:%n");
+        System.out.printf("  Total:\t%.4f secs%n", seconds);
+        System.out.printf("  Requests/sec:\t%.2f%n", latencies.length / seconds);
+        System.out.printf("%nLatency distribution:%n");
+        for (int percentile : new int[]{50, 90, 99}) {
+            System.out.printf("  %d%% in %.4f secs%n", percentile, percentile(latencies, percentile) / 1e9);
+        }
+        System.out.printf("%nStatus code distribution:%n");
+        statuses.forEach((status, count) -> System.out.printf("  [%s]\t%d responses%n", status, count));
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    /**
+     * 单个并发客户端，只在自己的线程内写入，结束后再汇总
+     */
+    private static class Worker {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Long> statuses = new TreeMap<>();
+
+        Worker run(HttpClient client, HttpRequest request, long deadline) {
+            while (System.nanoTime() < deadline) {
+                long begin = System.nanoTime();
+                String status;
+                try {
+                    status = String.valueOf(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                } catch (Exception e) {
+                    status = e.getClass().getSimpleName();
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - begin;
+                statuses.merge(status, 1L, Long::sum);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+#!/bin/bash
+
+# 平台线程 vs 虚拟线程吞吐量对比脚本
+# 分别以默认模式和 vthreads profile 启动同一个服务，用相同并发压测同一个接口，输出 QPS 和延迟
+#
+# 使用方法: ./compare-virtual-threads.sh [service-name] [url-path] [concurrency] [duration] [base-profile]
+#   例如:   ./compare-virtual-threads.sh shift-service /api/shifts?limit=50 400 30s
+#   H2:     EXTRA_APP_ARGS="--spring.flyway.enabled=false --eureka.client.enabled=false" ./compare-virtual-threads.sh shift-service /api/shifts?limit=50 400 30s default
+#
+# 前置条件:
+# - 已执行 mvn clean package -DskipTests
+# - 默认使用 local profile，需要本地 PostgreSQL（scripts/start-postgres.sh）；
+#   base-profile 为 default 时使用内存 H2（Flyway 脚本依赖 PostgreSQL，需要关闭），结果不包含数据库网络 IO
+# - 测试 shift-service 写接口时 user-service 也需要运行
+# - 压测工具依次使用 hey（https://github.com/rakyll/hey）、Apache Bench（ab），
+#   都没有安装时使用 JDK 自带 HttpClient 实现的 scripts/HttpLoad.java
+
+set -e
+
+SERVICE_NAME=${1:-shift-service}
+URL_PATH=${2:-/api/shifts?limit=50}
+CONCURRENCY=${3:-400}
+DURATION=${4:-30s}
+BASE_PROFILE=${5:-local}
+PROJECT_ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+RESULT_DIR="${PROJECT_ROOT}/target/vthreads-comparison"
+
+case "$SERVICE_NAME" in
+    user-service) PORT=8081 ;;
+    shift-service) PORT=8082 ;;
+    *) echo "❌ 不支持的服务: ${SERVICE_NAME}"; exit 1 ;;
+esac
+
+JAR=$(ls "${PROJECT_ROOT}/${SERVICE_NAME}"/target/${SERVICE_NAME}-*.jar 2>/dev/null | head -1)
+if [ -z "$JAR" ]; then
+    echo "❌ 未找到 ${SERVICE_NAME} 的 JAR，请先执行: mvn clean package -DskipTests"
+    exit 1
+fi
+
+if command -v hey &> /dev/null; then
+    LOAD_TOOL=hey
+elif command -v ab &> /dev/null; then
+    LOAD_TOOL=ab
+else
+    LOAD_TOOL=java
+fi
+
+mkdir -p "$RESULT_DIR"
+
+run_mode() {
+    local mode=$1
+    local profiles=$2
+    local log_file="${RESULT_DIR}/${SERVICE_NAME}-${mode}.log"
+    local result_file="${RESULT_DIR}/${SERVICE_NAME}-${mode}.txt"
+
+    echo "▶ 启动 ${SERVICE_NAME}（${mode}，profiles=${profiles}）..."
+    java -jar "$JAR" --spring.profiles.active="${profiles}" $EXTRA_APP_ARGS > "$log_file" 2>&1 &
+    local pid=$!
+
+    for i in $(seq 1 60); do
+        if curl -sf "http://localhost:${PORT}/actuator/health" > /dev/null; then
+            break
+        fi
+        sleep 2
+    done
+
+    # 预热
+    curl -sf "http://localhost:${PORT}${URL_PATH}" > /dev/null || true
+
+    echo "▶ 压测 ${URL_PATH}（并发 ${CONCURRENCY}，持续 ${DURATION}）..."
+    if [ "$LOAD_TOOL" = "hey" ]; then
+        hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:${PORT}${URL_PATH}" > "$result_file"
+        grep -E "Requests/sec|99% in|Status code" -A0 "$result_file" || true
+    elif [ "$LOAD_TOOL" = "ab" ]; then
+        ab -k -t "${DURATION%s}" -c "$CONCURRENCY" "http://localhost:${PORT}${URL_PATH}" > "$result_file"
+        grep -E "Requests per second|99%" "$result_file" || true
+    else
+        java "${PROJECT_ROOT}/scripts/HttpLoad.java" "http://localhost:${PORT}${URL_PATH}" "$CONCURRENCY" "$DURATION" > "$result_file"
+        grep -E "Requests/sec|99% in|\\[" "$result_file" || true
+    fi
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo ""
+}
+
+echo "=========================================="
+echo "平台线程 vs 虚拟线程吞吐量对比"
+echo "=========================================="
+echo "服务: ${SERVICE_NAME}"
+echo "接口: ${URL_PATH}"
+echo "压测工具: ${LOAD_TOOL}"
+echo "=========================================="
+echo ""
+
+run_mode platform "${BASE_PROFILE}"
+run_mode vthreads "${BASE_PROFILE},vthreads"
+
+echo "✅ 完成，详细结果见 ${RESULT_DIR}"
@@ -0,0 +1,160 @@
+#!/bin/bash
+
+# 启动速度基准测试脚本
+# 对同一个服务的不同构建产物（普通 JAR / AOT / CDS / AOT+CDS / 原生镜像）分别启动多次，
+# 记录从启动进程到第一个业务请求成功返回的时间（time-to-first-request）和此时的常驻内存（RSS）
+#
+# 使用方法: ./startup-benchmark.sh [service-name] [runs] [profiles]
+#   例如:   ./startup-benchmark.sh shift-service 5 local
+#
+# 前置条件:
+# - 本地 PostgreSQL 已启动（scripts/start-postgres.sh），默认使用 local profile
+# - 按需构建要对比的产物（未构建的变体会跳过）:
+#     mvn clean package -DskipTests                                          # jar
+#     mvn -Paot,cds -Daot.profiles=local -pl shift-service -am package -DskipTests  # aot、cds、aot+cds
+#     mvn -Pnative -Daot.profiles=local -pl shift-service -am package -DskipTests   # native（需要 GraalVM）
+# - aot.profiles 必须与这里的 profiles 一致，否则 AOT 产物中的条件装配与运行时配置不符
+
+set -e
+
+SERVICE_NAME=${1:-shift-service}
+RUNS=${2:-5}
+PROFILES=${3:-local}
+PROJECT_ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+SERVICE_DIR="${PROJECT_ROOT}/${SERVICE_NAME}"
+RESULT_DIR="${PROJECT_ROOT}/target/startup-benchmark"
+TIMEOUT_SECONDS=120
+
+case "$SERVICE_NAME" in
+    user-service) PORT=8081; FIRST_REQUEST=/api/users?limit=1 ;;
+    shift-service) PORT=8082; FIRST_REQUEST=/api/shifts?limit=1 ;;
+    *) echo "❌ 不支持的服务: ${SERVICE_NAME}"; exit 1 ;;
+esac
+
+# 不注册到 Eureka，避免启动时间受注册中心是否可用影响
+APP_ARGS="--spring.profiles.active=${PROFILES} --eureka.client.enabled=false"
+
+JAR=$(ls "${SERVICE_DIR}"/target/${SERVICE_NAME}-*.jar 2>/dev/null | grep -v -- '-exec.jar$' | head -1)
+CDS_JAR=$(ls "${SERVICE_DIR}"/target/cds/${SERVICE_NAME}-*-cds.jar 2>/dev/null | head -1)
+CDS_ARCHIVE="${SERVICE_DIR}/target/cds/application.jsa"
+NATIVE_IMAGE="${SERVICE_DIR}/target/${SERVICE_NAME}"
+# process-aot 的生成目录，存在说明 target/classes 中包含 AOT 生成的类
+AOT_SOURCES="${SERVICE_DIR}/target/spring-aot"
+
+if [ -z "$JAR" ]; then
+    echo "❌ 未找到 ${SERVICE_NAME} 的 JAR，请先执行: mvn clean package -DskipTests"
+    exit 1
+fi
+
+now_millis() {
+    date +%s%3N
+}
+
+mkdir -p "$RESULT_DIR"
+CSV_FILE="${RESULT_DIR}/${SERVICE_NAME}.csv"
+echo "variant,run,time_to_first_request_ms,rss_mb" > "$CSV_FILE"
+
+# 启动一次并测量，输出 "毫秒 RSS(MB)"，失败时返回非 0
+measure_once() {
+    local variant=$1
+    local run=$2
+    local log_file="${RESULT_DIR}/${SERVICE_NAME}-${variant}-${run}.log"
+    local pid
+    local start
+    local elapsed=""
+
+    start=$(now_millis)
+    case "$variant" in
+        jar)
+            java -jar "$JAR" $APP_ARGS > "$log_file" 2>&1 &
+            ;;
+        aot)
+            java -Dspring.aot.enabled=true -jar "$JAR" $APP_ARGS > "$log_file" 2>&1 &
+            ;;
+        cds)
+            (cd "$(dirname "$CDS_JAR")" && exec java -XX:SharedArchiveFile=application.jsa \
+                -jar "$(basename "$CDS_JAR")" $APP_ARGS) > "$log_file" 2>&1 &
+            ;;
+        aot+cds)
+            (cd "$(dirname "$CDS_JAR")" && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+                -jar "$(basename "$CDS_JAR")" $APP_ARGS) > "$log_file" 2>&1 &
+            ;;
+        native)
+            "$NATIVE_IMAGE" $APP_ARGS > "$log_file" 2>&1 &
+            ;;
+    esac
+    pid=$!
+
+    while [ $(( $(now_millis) - start )) -lt $(( TIMEOUT_SECONDS * 1000 )) ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            break
+        fi
+        if curl -sf -o /dev/null "http://localhost:${PORT}${FIRST_REQUEST}"; then
+            elapsed=$(( $(now_millis) - start ))
+            break
+        fi
+        sleep 0.05
+    done
+
+    local rss_kb
+    rss_kb=$(ps -o rss= -p "$pid" 2>/dev/null | tr -d ' ')
+
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+
+    if [ -z "$elapsed" ] || [ -z "$rss_kb" ]; then
+        echo "⚠️  ${variant} 第 ${run} 次启动失败，日志: ${log_file}" >&2
+        return 1
+    fi
+    echo "${elapsed} $(( rss_kb / 1024 ))"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2]; else print int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+VARIANTS="jar"
+if [ -d "$AOT_SOURCES" ]; then
+    VARIANTS="$VARIANTS aot"
+fi
+if [ -n "$CDS_JAR" ] && [ -f "$CDS_ARCHIVE" ]; then
+    VARIANTS="$VARIANTS cds"
+    if [ -d "$AOT_SOURCES" ]; then
+        VARIANTS="$VARIANTS aot+cds"
+    fi
+fi
+if [ -x "$NATIVE_IMAGE" ] && [ ! -d "$NATIVE_IMAGE" ]; then
+    VARIANTS="$VARIANTS native"
+fi
+
+echo "=========================================="
+echo "启动速度基准测试"
+echo "=========================================="
+echo "服务: ${SERVICE_NAME}（profiles=${PROFILES}）"
+echo "首个请求: ${FIRST_REQUEST}"
+echo "变体: ${VARIANTS}"
+echo "每个变体启动 ${RUNS} 次，取中位数"
+echo "=========================================="
+echo ""
+
+SUMMARY=""
+for variant in $VARIANTS; do
+    echo "▶ ${variant}"
+    for run in $(seq 1 "$RUNS"); do
+        if result=$(measure_once "$variant" "$run"); then
+            read -r millis rss_mb <<< "$result"
+            echo "  第 ${run} 次: ${millis} ms，RSS ${rss_mb} MB"
+            echo "${variant},${run},${millis},${rss_mb}" >> "$CSV_FILE"
+        fi
+    done
+    ttfr=$(grep "^${variant}," "$CSV_FILE" | cut -d, -f3 | median)
+    rss=$(grep "^${variant}," "$CSV_FILE" | cut -d, -f4 | median)
+    SUMMARY="${SUMMARY}$(printf '%-10s %24s %12s' "$variant" "$ttfr" "$rss")\n"
+    echo ""
+done
+
+echo "=========================================="
+printf '%-10s %24s %12s\n' "变体" "首个请求耗时(ms, 中位数)" "RSS(MB)"
+printf "$SUMMARY"
+echo "=========================================="
+echo "✅ 完成，明细见 ${CSV_FILE}"
@@ -2,6 +2,7 @@ package com.staffjoy.shift;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
@@ -10,8 +11,9 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
  * 端口: 8082
  * 已集成 Eureka Client，会自动注册到 Eureka Server
  * 已启用 Feign Client，可以进行服务间通信
+ * R2DBC 只用于只读查询，不使用 R2DBC 自动配置（见 ReactiveReadConfig）
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableDiscoveryClient
 @EnableFeignClients(basePackages = "com.staffjoy.shift.client")
 public class ShiftServiceApplication {
@@ -0,0 +1,217 @@
+package com.staffjoy.shift.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.staffjoy.shift.config.UserServiceFallbackProperties;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 带熔断、舱壁隔离和降级的 UserServiceClient 包装
+ *
+ * - 熔断器（resilience4j.circuitbreaker.instances.user-service）：失败率或慢调用率过高时快速失败，
+ *   不再让请求线程挂在 Feign 调用上
+ * - 舱壁（resilience4j.bulkhead.instances.user-service）：限制同时调用 user-service 的线程数
+ * - 超时：由 Feign 的 connect-timeout / read-timeout 控制（spring.cloud.openfeign.client.config.user-service）
+ * - 降级：user-service 不可用时返回最后一次成功查询到的用户状态（staffjoy.user-service-fallback），
+ *   没有可用状态时抛出 UserServiceUnavailableException
+ *
+ * 404 视为正常结果（用户不存在），其它 4xx 不计入熔断失败率，也不触发降级。
+ */
+@Slf4j
+@Component
+public class ResilientUserServiceClient {
+
+    public static final String INSTANCE_NAME = "user-service";
+
+    private final UserServiceClient userServiceClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final UserServiceFallbackProperties fallbackProperties;
+    private final Cache<Long, Optional<UserServiceClient.UserResponse>> lastKnown;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ResilientUserServiceClient(UserServiceClient userServiceClient,
+                                      CircuitBreakerRegistry circuitBreakerRegistry,
+                                      BulkheadRegistry bulkheadRegistry,
+                                      UserServiceFallbackProperties fallbackProperties,
+                                      MeterRegistry meterRegistry) {
+        this.userServiceClient = userServiceClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE_NAME);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE_NAME);
+        this.fallbackProperties = fallbackProperties;
+        this.meterRegistry = meterRegistry;
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(fallbackProperties.getMaximumSize())
+                .expireAfterWrite(fallbackProperties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lastKnown, "userLastKnown");
+    }
+
+    /**
+     * 获取单个用户，用户不存在时返回 Optional.empty()
+     */
+    public Optional<UserServiceClient.UserResponse> getUserById(Long userId) {
+        try {
+            Optional<UserServiceClient.UserResponse> user = call("getUserById", () -> fetchUser(userId));
+            lastKnown.put(userId, user);
+            return user;
+        } catch (RuntimeException e) {
+            if (!isUnavailable(e)) {
+                throw e;
+            }
+            Optional<UserServiceClient.UserResponse> known = fallbackProperties.isEnabled()
+                    ? lastKnown.getIfPresent(userId)
+                    : null;
+            if (known == null) {
+                recordFallback("getUserById", "unavailable");
+                throw new UserServiceUnavailableException("user-service 不可用，无法验证用户，ID: " + userId, e);
+            }
+            recordFallback("getUserById", "served");
+            log.warn("user-service 不可用，使用用户 {} 的最后已知状态: {}", userId, e.toString());
+            return known;
+        }
+    }
+
+    /**
+     * 批量获取用户（一次 POST /api/users/batch，调用方负责按批次大小拆分）
+     * 降级时只有全部ID都有最后已知状态才返回结果
+     */
+    public Map<Long, Optional<UserServiceClient.UserResponse>> getUsersByIds(List<Long> userIds) {
+        try {
+            Map<Long, Optional<UserServiceClient.UserResponse>> users = call("getUsersByIds", () -> fetchUsers(userIds));
+            lastKnown.putAll(users);
+            return users;
+        } catch (RuntimeException e) {
+            if (!isUnavailable(e)) {
+                throw e;
+            }
+            Map<Long, Optional<UserServiceClient.UserResponse>> known = fallbackProperties.isEnabled()
+                    ? lastKnown.getAllPresent(userIds)
+                    : Map.of();
+            if (known.size() < userIds.size()) {
+                recordFallback("getUsersByIds", "unavailable");
+                throw new UserServiceUnavailableException("user-service 不可用，无法验证 "
+                        + (userIds.size() - known.size()) + " 个用户", e);
+            }
+            recordFallback("getUsersByIds", "served");
+            log.warn("user-service 不可用，使用 {} 个用户的最后已知状态: {}", userIds.size(), e.toString());
+            return new HashMap<>(known);
+        }
+    }
+
+    /**
+     * 用户被更新或删除时丢弃其最后已知状态，避免降级时返回已删除的用户
+     */
+    public void forget(Long userId) {
+        lastKnown.invalidate(userId);
+    }
+
+    /**
+     * 丢弃全部最后已知状态（缓存整体清空时调用）
+     */
+    public void forgetAll() {
+        lastKnown.invalidateAll();
+    }
+
+    /**
+     * 经过熔断器和舱壁调用 user-service，耗时按结果记录为 feign.client.requests
+     */
+    private <T> T call(String method, Supplier<T> supplier) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            // 熔断器在外、舱壁在内：舱壁已满直接拒绝，不计入熔断失败率（见 ignore-exceptions 配置）
+            return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, supplier)).get();
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("feign.client.requests")
+                    .description("调用 user-service 的耗时")
+                    .tag("client", INSTANCE_NAME)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Optional<UserServiceClient.UserResponse> fetchUser(Long userId) {
+        try {
+            UserServiceClient.UserResponse user = userServiceClient.getUserById(userId);
+            if (user == null || user.getId() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(user);
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private Map<Long, Optional<UserServiceClient.UserResponse>> fetchUsers(List<Long> userIds) {
+        UserServiceClient.BatchUserResponse response =
+                userServiceClient.getUsersByIds(new UserServiceClient.BatchUserRequest(new ArrayList<>(userIds)));
+        Map<Long, Optional<UserServiceClient.UserResponse>> result = new HashMap<>();
+        for (UserServiceClient.UserResponse user : response.getUsers()) {
+            result.put(user.getId(), Optional.of(user));
+        }
+        for (Long id : userIds) {
+            result.putIfAbsent(id, Optional.empty());
+        }
+        return result;
+    }
+
+    /**
+     * 是否属于"服务不可用"类错误：熔断打开、舱壁已满、连接失败或超时、5xx
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof CallNotPermittedException
+                || e instanceof BulkheadFullException
+                || e instanceof RetryableException
+                || e instanceof FeignException.FeignServerException;
+    }
+
+    private static String outcomeOf(RuntimeException e) {
+        if (e instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (e instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        if (e instanceof RetryableException) {
+            return "io_error";
+        }
+        if (e instanceof FeignException.FeignServerException) {
+            return "server_error";
+        }
+        if (e instanceof FeignException.FeignClientException) {
+            return "client_error";
+        }
+        return "error";
+    }
+
+    private void recordFallback(String method, String outcome) {
+        meterRegistry.counter("user.service.fallback", "method", method, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,232 @@
+package com.staffjoy.shift.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.staffjoy.shift.config.UserCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 用户信息本地缓存
+ *
+ * 位于 ResilientUserServiceClient 之前，避免每次创建排班都同步调用 user-service：
+ * - 按条目数和 TTL 淘汰
+ * - 用户不存在（404）的结果也会缓存，但时间更短（negativeTtl）
+ * - 记录命中/未命中次数，并通过 Micrometer 暴露（cache.gets 等指标）
+ * - 用户被更新或删除时，可调用 evict 使对应条目失效
+ * - 调用 user-service 在 Caffeine 的 compute 之外进行（不持有 ConcurrentHashMap 的桶锁，也不会在虚拟线程上 pinning）；
+ *   加载期间有失效操作时，本次结果只返回给调用方、不写入缓存。同一用户并发未命中时可能重复加载
+ */
+@Component
+public class UserCache {
+
+    /**
+     * 单次批量查询的最大ID数量（与 user-service 的限制保持一致）
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private final ResilientUserServiceClient userServiceClient;
+    private final UserCacheProperties properties;
+    private final Cache<Long, Optional<UserServiceClient.UserResponse>> cache;
+    /**
+     * 失效次数；加载前后不一致说明加载期间有用户被失效，结果可能已过期
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public UserCache(ResilientUserServiceClient userServiceClient,
+                     UserCacheProperties properties,
+                     MeterRegistry meterRegistry) {
+        this.userServiceClient = userServiceClient;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new PositiveNegativeExpiry(properties))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userCache");
+    }
+
+    /**
+     * 获取用户信息，优先读取缓存
+     * user-service 返回 404 时返回 Optional.empty()；
+     * user-service 不可用且没有最后已知状态时抛出 UserServiceUnavailableException，且不缓存
+     */
+    public Optional<UserServiceClient.UserResponse> getUser(Long userId) {
+        if (!properties.isEnabled()) {
+            return load(userId);
+        }
+        Optional<UserServiceClient.UserResponse> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = invalidations.get();
+        Optional<UserServiceClient.UserResponse> loaded = load(userId);
+        putIfCurrent(Map.of(userId, loaded), generation);
+        return loaded;
+    }
+
+    /**
+     * 判断用户是否存在
+     */
+    public boolean exists(Long userId) {
+        return getUser(userId).isPresent();
+    }
+
+    /**
+     * 批量获取用户信息
+     * 缓存未命中的ID通过 POST /api/users/batch 一次性加载，每批最多 BATCH_SIZE 个
+     */
+    public Map<Long, Optional<UserServiceClient.UserResponse>> getUsers(Collection<Long> userIds) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(userIds);
+        uniqueIds.remove(null);
+        if (!properties.isEnabled()) {
+            return loadAll(uniqueIds);
+        }
+        Map<Long, Optional<UserServiceClient.UserResponse>> present = cache.getAllPresent(uniqueIds);
+        Set<Long> missing = new LinkedHashSet<>(uniqueIds);
+        missing.removeAll(present.keySet());
+        Map<Long, Optional<UserServiceClient.UserResponse>> loaded = Map.of();
+        if (!missing.isEmpty()) {
+            long generation = invalidations.get();
+            loaded = loadAll(missing);
+            putIfCurrent(loaded, generation);
+        }
+        Map<Long, Optional<UserServiceClient.UserResponse>> result = new LinkedHashMap<>();
+        for (Long userId : uniqueIds) {
+            Optional<UserServiceClient.UserResponse> user = present.containsKey(userId)
+                    ? present.get(userId) : loaded.get(userId);
+            if (user != null) {
+                result.put(userId, user);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 返回给定ID中不存在的用户ID
+     */
+    public Set<Long> findMissing(Collection<Long> userIds) {
+        return getUsers(userIds).entrySet().stream()
+                .filter(entry -> entry.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * 预先写入已知的用户信息（例如批量查询的结果）
+     */
+    public void put(UserServiceClient.UserResponse user) {
+        if (properties.isEnabled() && user != null && user.getId() != null) {
+            cache.put(user.getId(), Optional.of(user));
+        }
+    }
+
+    /**
+     * 预先写入已确认不存在的用户
+     */
+    public void putMissing(Long userId) {
+        if (properties.isEnabled() && userId != null) {
+            cache.put(userId, Optional.empty());
+        }
+    }
+
+    /**
+     * 用户被更新或删除时，使对应缓存和降级用的最后已知状态失效
+     */
+    public void evict(Long userId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(userId);
+        userServiceClient.forget(userId);
+    }
+
+    /**
+     * 清空全部缓存和降级用的最后已知状态
+     */
+    public void evictAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+        userServiceClient.forgetAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 写入加载结果；写入前后失效次数有变化时撤销本次写入
+     * （先递增失效次数再删除条目，写入后再检查一次即可覆盖检查与写入之间发生的失效）
+     */
+    private void putIfCurrent(Map<Long, Optional<UserServiceClient.UserResponse>> loaded, long generation) {
+        if (loaded.isEmpty() || invalidations.get() != generation) {
+            return;
+        }
+        cache.putAll(loaded);
+        if (invalidations.get() != generation) {
+            cache.invalidateAll(loaded.keySet());
+        }
+    }
+
+    private Optional<UserServiceClient.UserResponse> load(Long userId) {
+        return userServiceClient.getUserById(userId);
+    }
+
+    private Map<Long, Optional<UserServiceClient.UserResponse>> loadAll(Set<? extends Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        Map<Long, Optional<UserServiceClient.UserResponse>> result = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            result.putAll(userServiceClient.getUsersByIds(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()))));
+        }
+        return result;
+    }
+
+    /**
+     * 存在的用户使用 ttl，不存在的用户使用 negativeTtl
+     */
+    private static class PositiveNegativeExpiry
+            implements Expiry<Long, Optional<UserServiceClient.UserResponse>> {
+
+        private final UserCacheProperties properties;
+
+        PositiveNegativeExpiry(UserCacheProperties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<UserServiceClient.UserResponse> value, long currentTime) {
+            return (value.isPresent() ? properties.getTtl() : properties.getNegativeTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<UserServiceClient.UserResponse> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<UserServiceClient.UserResponse> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
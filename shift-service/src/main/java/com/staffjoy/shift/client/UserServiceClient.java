@@ -3,6 +3,11 @@ package com.staffjoy.shift.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * User Service Feign Client
@@ -23,6 +28,16 @@ public interface UserServiceClient {
     @GetMapping("/{id}")
     UserResponse getUserById(@PathVariable Long id);
 
+    /**
+     * 根据用户ID列表批量获取用户信息
+     * 一次 HTTP 调用校验整个排班名单，单次最多 1000 个ID
+     *
+     * @param request 用户ID列表
+     * @return 找到的用户和不存在的用户ID
+     */
+    @PostMapping("/batch")
+    BatchUserResponse getUsersByIds(@RequestBody BatchUserRequest request);
+
     /**
      * 用户响应DTO（简化版，只包含必要字段）
      */
@@ -65,5 +80,50 @@ public interface UserServiceClient {
             this.name = name;
         }
     }
-}
 
+    /**
+     * 批量查询请求DTO
+     */
+    class BatchUserRequest {
+        private List<Long> ids = new ArrayList<>();
+
+        public BatchUserRequest() {
+        }
+
+        public BatchUserRequest(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * 批量查询响应DTO
+     */
+    class BatchUserResponse {
+        private List<UserResponse> users = new ArrayList<>();
+        private List<Long> missingIds = new ArrayList<>();
+
+        public List<UserResponse> getUsers() {
+            return users;
+        }
+
+        public void setUsers(List<UserResponse> users) {
+            this.users = users;
+        }
+
+        public List<Long> getMissingIds() {
+            return missingIds;
+        }
+
+        public void setMissingIds(List<Long> missingIds) {
+            this.missingIds = missingIds;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.staffjoy.shift.client;
+
+/**
+ * user-service 暂不可用（熔断打开、舱壁已满、超时或服务端错误），且没有可用的降级数据
+ */
+public class UserServiceUnavailableException extends RuntimeException {
+
+    public UserServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
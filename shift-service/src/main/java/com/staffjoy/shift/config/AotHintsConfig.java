@@ -0,0 +1,39 @@
+package com.staffjoy.shift.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.staffjoy.shift.client.UserServiceClient;
+import com.staffjoy.shift.dto.CompanyWeekScheduleView;
+import com.staffjoy.shift.dto.ShiftView;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * AOT / GraalVM native image 的运行时提示
+ *
+ * 控制器的请求体和响应体由 Spring 自动注册，这里只补充：
+ * - 在控制器之外用 ObjectMapper 或 Feign 序列化的类型（周排班 JSON、调用 user-service 的请求和响应）
+ * - 按类名反射加载的类和资源（HibernateCacheConfig 使用的 Caffeine JCache 实现及其默认配置 reference.conf）
+ */
+@Configuration
+@ImportRuntimeHints(AotHintsConfig.Hints.class)
+@RegisterReflectionForBinding({
+        CompanyWeekScheduleView.class,
+        ShiftView.class,
+        UserServiceClient.UserResponse.class,
+        UserServiceClient.BatchUserRequest.class,
+        UserServiceClient.BatchUserResponse.class})
+public class AotHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("reference.conf");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.staffjoy.shift.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.repository.CompanyRepository;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate 二级缓存配置类
+ *
+ * 使用 Caffeine 的 JCache 实现创建带容量上限和过期时间的缓存区域，交给 Hibernate 的 JCache RegionFactory 使用。
+ * 未在这里创建的区域不会被自动创建（hibernate.javax.cache.missing_cache_strategy=fail）。
+ * 命中率等统计通过 hibernate-micrometer 暴露为 hibernate.second.level.cache.* / hibernate.cache.query.* 指标。
+ */
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+public class HibernateCacheConfig {
+
+    /**
+     * Hibernate 默认查询缓存区域
+     */
+    static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    /**
+     * 记录每张表最后修改时间的区域，用于判断查询缓存是否失效；条目数等于表数量，不设置上限和过期
+     */
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        createCache(cacheManager, Company.CACHE_REGION, properties.getCompany());
+        createCache(cacheManager, CompanyRepository.QUERY_CACHE_REGION, properties.getCompanyQueries());
+        createCache(cacheManager, DEFAULT_QUERY_RESULTS_REGION, properties.getDefaultQueries());
+        createCache(cacheManager, UPDATE_TIMESTAMPS_REGION, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, HibernateCacheProperties.Region region) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (region != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,54 @@
+package com.staffjoy.shift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Hibernate 二级缓存配置
+ * 对应配置前缀：staffjoy.hibernate-cache
+ *
+ * 缓存是进程内的（每个实例一份），其它实例修改公司后，本实例最多在 ttl 之后看到变化。
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.hibernate-cache")
+public class HibernateCacheProperties {
+
+    /**
+     * Company 实体缓存
+     */
+    private Region company = new Region(10_000, Duration.ofHours(1));
+
+    /**
+     * 公司查询缓存（findByName / existsByName 的结果）
+     */
+    private Region companyQueries = new Region(10_000, Duration.ofMinutes(10));
+
+    /**
+     * 其它查询缓存（Hibernate 默认查询缓存区域）
+     */
+    private Region defaultQueries = new Region(1_000, Duration.ofMinutes(10));
+
+    @Data
+    public static class Region {
+
+        /**
+         * 最大缓存条目数
+         */
+        private long maximumSize;
+
+        /**
+         * 写入后的过期时间
+         */
+        private Duration ttl;
+
+        public Region() {
+        }
+
+        public Region(long maximumSize, Duration ttl) {
+            this.maximumSize = maximumSize;
+            this.ttl = ttl;
+        }
+    }
+}
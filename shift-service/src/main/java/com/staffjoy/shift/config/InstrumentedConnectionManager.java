@@ -0,0 +1,96 @@
+package com.staffjoy.shift.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 带指标的 Apache HttpClient 5 连接池
+ *
+ * 在 PoolingHttpClientConnectionManager 的基础上记录：
+ * - feign.http.connection.acquire：从连接池获取连接的耗时（池满时会排队等待）
+ * - feign.http.connection.acquire.timeouts：等待连接超时的次数
+ * - feign.http.pool.saturation：已借出连接数 / 最大连接数
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer acquireTimer;
+    private final Counter acquireTimeouts;
+
+    public InstrumentedConnectionManager(PoolConcurrencyPolicy poolConcurrencyPolicy,
+                                         PoolReusePolicy poolReusePolicy,
+                                         TimeValue timeToLive,
+                                         MeterRegistry meterRegistry,
+                                         String poolName) {
+        super(RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register(URIScheme.HTTP.id, PlainConnectionSocketFactory.getSocketFactory())
+                        .register(URIScheme.HTTPS.id, SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                poolConcurrencyPolicy, poolReusePolicy, timeToLive);
+        this.acquireTimer = Timer.builder("feign.http.connection.acquire")
+                .description("从连接池获取连接的耗时")
+                .tag("pool", poolName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.acquireTimeouts = Counter.builder("feign.http.connection.acquire.timeouts")
+                .description("等待连接池连接超时的次数")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        Gauge.builder("feign.http.pool.saturation", this, InstrumentedConnectionManager::saturation)
+                .description("连接池饱和度（已借出连接数 / 最大连接数）")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 连接池饱和度：已借出连接数 / 最大连接数
+     */
+    public double saturation() {
+        PoolStats stats = getTotalStats();
+        return stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax();
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return delegate.get(timeout);
+                } catch (TimeoutException e) {
+                    acquireTimeouts.increment();
+                    throw e;
+                } finally {
+                    acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+}
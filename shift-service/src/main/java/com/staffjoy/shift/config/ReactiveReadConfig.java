@@ -0,0 +1,17 @@
+package com.staffjoy.shift.config;
+
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 响应式只读接口配置类
+ *
+ * 只用 R2DBC 读取排班，写入仍然走 JPA。ShiftServiceApplication 排除了 R2dbcAutoConfiguration：
+ * 自动配置的 ConnectionFactory 会关闭 JDBC DataSource 自动配置，还会带来第二个 TransactionManager。
+ * 连接参数仍然使用 spring.r2dbc，由 ShiftReactiveRepository 自行创建连接池。
+ */
+@Configuration
+@EnableConfigurationProperties({ReactiveReadProperties.class, R2dbcProperties.class})
+public class ReactiveReadConfig {
+}
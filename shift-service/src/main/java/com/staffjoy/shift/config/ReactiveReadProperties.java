@@ -0,0 +1,20 @@
+package com.staffjoy.shift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 响应式只读接口配置（/api/shifts/reactive/**）
+ * 对应配置前缀：staffjoy.reactive-reads
+ *
+ * 数据库连接见 spring.r2dbc
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.reactive-reads")
+public class ReactiveReadProperties {
+
+    /**
+     * 每次从数据库游标读取的行数；客户端读得慢时不会继续向数据库请求下一批
+     */
+    private int fetchSize = 500;
+}
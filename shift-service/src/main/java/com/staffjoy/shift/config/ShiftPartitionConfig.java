@@ -0,0 +1,17 @@
+package com.staffjoy.shift.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * shifts 分区维护配置类
+ * 通过 staffjoy.shift-partitions.enabled=true 启用定时任务（ShiftPartitionMaintenance）
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ShiftPartitionProperties.class)
+@ConditionalOnProperty(prefix = "staffjoy.shift-partitions", name = "enabled", havingValue = "true")
+public class ShiftPartitionConfig {
+}
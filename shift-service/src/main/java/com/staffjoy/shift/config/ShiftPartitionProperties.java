@@ -0,0 +1,46 @@
+package com.staffjoy.shift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * shifts 分区维护配置（仅 PostgreSQL，表结构见 V8__partition_shifts_by_month.sql）
+ * 对应配置前缀：staffjoy.shift-partitions
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.shift-partitions")
+public class ShiftPartitionProperties {
+
+    /**
+     * H2 没有分区表，默认关闭，prod 配置中开启
+     */
+    private boolean enabled = false;
+
+    /**
+     * 提前创建未来几个月的分区
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * 保留最近几个月的分区（不含当月），更早的分区按 archiveMode 处理；0 表示永久保留
+     */
+    private int retentionMonths = 24;
+
+    private ArchiveMode archiveMode = ArchiveMode.DETACH;
+
+    /**
+     * 执行时间（cron），应用启动时也会执行一次
+     */
+    private String cron = "0 30 3 * * *";
+
+    public enum ArchiveMode {
+        /**
+         * 分离后改名为 shifts_archive_YYYYMM 保留，可导出后手工删除
+         */
+        DETACH,
+        /**
+         * 分离后直接删除
+         */
+        DROP
+    }
+}
@@ -0,0 +1,12 @@
+package com.staffjoy.shift.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户校验缓存和 user-service 降级配置类
+ */
+@Configuration
+@EnableConfigurationProperties({UserCacheProperties.class, UserServiceFallbackProperties.class})
+public class UserCacheConfig {
+}
@@ -0,0 +1,35 @@
+package com.staffjoy.shift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户校验缓存配置
+ * 对应配置前缀：staffjoy.user-cache
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * 是否启用缓存（关闭后每次都直接调用 user-service）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大缓存条目数
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * 用户存在时的缓存时间
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * 用户不存在（404）时的缓存时间，应短于 ttl，避免新建用户长时间不可见
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+}
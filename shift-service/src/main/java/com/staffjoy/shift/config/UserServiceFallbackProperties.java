@@ -0,0 +1,30 @@
+package com.staffjoy.shift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * user-service 不可用时的降级配置
+ * 对应配置前缀：staffjoy.user-service-fallback
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.user-service-fallback")
+public class UserServiceFallbackProperties {
+
+    /**
+     * 是否在 user-service 不可用时使用最后一次成功查询到的用户状态
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最多保留多少个用户的最后已知状态
+     */
+    private long maximumSize = 50_000;
+
+    /**
+     * 最后已知状态的保留时间，超过后不再用于降级
+     */
+    private Duration ttl = Duration.ofHours(24);
+}
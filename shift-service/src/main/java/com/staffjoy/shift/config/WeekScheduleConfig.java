@@ -0,0 +1,15 @@
+package com.staffjoy.shift.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 周排班读模型配置类
+ * 启用定时任务，由 CompanyWeekScheduleRebuilder 合并重新生成待更新的周排班
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(WeekScheduleProperties.class)
+public class WeekScheduleConfig {
+}
@@ -0,0 +1,26 @@
+package com.staffjoy.shift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 周排班读模型重新生成配置（CompanyWeekScheduleRebuilder）
+ * 对应配置前缀：staffjoy.week-schedule
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.week-schedule")
+public class WeekScheduleProperties {
+
+    /**
+     * 检查待重新生成的周的间隔；间隔内同一周的多次写入只重新生成一次
+     * 由 @Scheduled 直接读取，配置中需要使用 ISO-8601 格式（例如 PT1S）
+     */
+    private Duration rebuildInterval = Duration.ofSeconds(1);
+
+    /**
+     * 每轮最多重新生成的周数
+     */
+    private int rebuildBatchSize = 100;
+}
@@ -1,13 +1,18 @@
 package com.staffjoy.shift.controller;
 
+import com.staffjoy.shift.dto.CompanyView;
+import com.staffjoy.shift.dto.PublishShiftsResponse;
 import com.staffjoy.shift.model.Company;
 import com.staffjoy.shift.service.CompanyService;
+import com.staffjoy.shift.service.ShiftService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -18,20 +23,22 @@ import java.util.List;
 public class CompanyController {
 
     private final CompanyService companyService;
+    private final ShiftService shiftService;
 
     @Autowired
-    public CompanyController(CompanyService companyService) {
+    public CompanyController(CompanyService companyService, ShiftService shiftService) {
         this.companyService = companyService;
+        this.shiftService = shiftService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Company>> getAllCompanies() {
-        List<Company> companies = companyService.getAllCompanies();
+    public ResponseEntity<List<CompanyView>> getAllCompanies() {
+        List<CompanyView> companies = companyService.getAllCompanies();
         return ResponseEntity.ok(companies);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Company> getCompanyById(@PathVariable Long id) {
+    public ResponseEntity<CompanyView> getCompanyById(@PathVariable Long id) {
         return companyService.getCompanyById(id)
                 .map(company -> ResponseEntity.ok(company))
                 .orElse(ResponseEntity.notFound().build());
@@ -57,6 +64,25 @@ public class CompanyController {
         }
     }
 
+    /**
+     * 发布公司在 [from, to) 内开始的所有排班（一条 UPDATE，返回发布数量）
+     * POST /api/companies/{id}/publish?from=&to=
+     */
+    @PostMapping("/{id}/publish")
+    public ResponseEntity<PublishShiftsResponse> publishShifts(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            int published = shiftService.publishShifts(id, from, to);
+            return ResponseEntity.ok(new PublishShiftsResponse(id, from, to, published));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCompany(@PathVariable Long id) {
         try {
@@ -1,15 +1,30 @@
 package com.staffjoy.shift.controller;
 
+import com.staffjoy.common.dto.CursorPage;
+import com.staffjoy.shift.client.UserServiceUnavailableException;
+import com.staffjoy.shift.dto.BulkShiftRequest;
+import com.staffjoy.shift.dto.ShiftView;
 import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.model.CompanyWeekSchedule;
 import com.staffjoy.shift.model.Shift;
+import com.staffjoy.shift.service.CompanyWeekScheduleService;
+import com.staffjoy.shift.service.ResourceNotFoundException;
+import com.staffjoy.shift.service.ShiftConflictException;
+import com.staffjoy.shift.service.ShiftExportService;
 import com.staffjoy.shift.service.ShiftService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,50 +36,186 @@ import java.util.List;
 public class ShiftController {
 
     private final ShiftService shiftService;
+    private final ShiftExportService shiftExportService;
+    private final CompanyWeekScheduleService scheduleService;
 
     @Autowired
-    public ShiftController(ShiftService shiftService) {
+    public ShiftController(ShiftService shiftService,
+                           ShiftExportService shiftExportService,
+                           CompanyWeekScheduleService scheduleService) {
         this.shiftService = shiftService;
+        this.shiftExportService = shiftExportService;
+        this.scheduleService = scheduleService;
     }
 
+    /**
+     * 游标分页获取所有排班
+     * GET /api/shifts?cursor=&limit=
+     */
     @GetMapping
-    public ResponseEntity<List<Shift>> getAllShifts() {
-        List<Shift> shifts = shiftService.getAllShifts();
-        return ResponseEntity.ok(shifts);
+    public ResponseEntity<CursorPage<ShiftView>> getAllShifts(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(shiftService.getAllShifts(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 游标分页获取已发布的排班
+     * GET /api/shifts/published?cursor=&limit=
+     */
+    @GetMapping("/published")
+    public ResponseEntity<CursorPage<ShiftView>> getPublishedShifts(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(shiftService.getPublishedShifts(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Shift> getShiftById(@PathVariable Long id) {
+    public ResponseEntity<ShiftView> getShiftById(@PathVariable Long id) {
         return shiftService.getShiftById(id)
                 .map(shift -> ResponseEntity.ok(shift))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Shift>> getShiftsByUserId(@PathVariable Long userId) {
-        List<Shift> shifts = shiftService.getShiftsByUserId(userId);
-        return ResponseEntity.ok(shifts);
+    public ResponseEntity<CursorPage<ShiftView>> getShiftsByUserId(@PathVariable Long userId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(shiftService.getShiftsByUserId(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/company/{companyId}")
-    public ResponseEntity<List<Shift>> getShiftsByCompanyId(@PathVariable Long companyId) {
-        List<Shift> shifts = shiftService.getShiftsByCompanyId(companyId);
-        return ResponseEntity.ok(shifts);
+    public ResponseEntity<CursorPage<ShiftView>> getShiftsByCompanyId(@PathVariable Long companyId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(shiftService.getShiftsByCompanyId(companyId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 流式导出公司在时间范围内的排班（NDJSON，每行一个排班）
+     * GET /api/shifts/company/{companyId}/export?from=&to=
+     */
+    @GetMapping("/company/{companyId}/export")
+    public void exportShiftsByCompanyId(
+            @PathVariable Long companyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        if (!from.isBefore(to)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "开始时间必须早于结束时间");
+            return;
+        }
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"shifts-company-" + companyId + ".ndjson\"");
+        shiftExportService.exportCompanyShifts(companyId, from, to, response.getOutputStream());
+    }
+
+    /**
+     * 获取公司某一周的排班（预先生成的周排班，week 为该周任意一天，默认本周）
+     * GET /api/shifts/company/{companyId}/schedule?week=yyyy-MM-dd
+     * 支持 If-None-Match，周排班未变化时返回 304
+     */
+    @GetMapping("/company/{companyId}/schedule")
+    public ResponseEntity<String> getCompanyWeekSchedule(
+            @PathVariable Long companyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week,
+            WebRequest request) {
+        CompanyWeekSchedule schedule;
+        try {
+            schedule = scheduleService.getWeek(companyId, week != null ? week : LocalDate.now());
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + schedule.getCompanyId() + "-" + schedule.getWeekStart() + "-" + schedule.getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .body(schedule.getDocument());
     }
 
     @GetMapping("/between")
-    public ResponseEntity<List<Shift>> getShiftsBetween(
+    public ResponseEntity<List<ShiftView>> getShiftsBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime stopTime) {
-        List<Shift> shifts = shiftService.getShiftsBetween(startTime, stopTime);
+        List<ShiftView> shifts = shiftService.getShiftsBetween(startTime, stopTime);
         return ResponseEntity.ok(shifts);
     }
 
+    /**
+     * 查找与时间窗口有重叠的排班
+     * GET /api/shifts/overlapping?startTime=&stopTime=
+     */
+    @GetMapping("/overlapping")
+    public ResponseEntity<List<ShiftView>> getShiftsOverlapping(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime stopTime) {
+        if (!startTime.isBefore(stopTime)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(shiftService.getShiftsOverlapping(startTime, stopTime));
+    }
+
+    /**
+     * 查找用户在时间窗口内的冲突排班
+     * GET /api/shifts/user/{userId}/conflicts?startTime=&stopTime=
+     */
+    @GetMapping("/user/{userId}/conflicts")
+    public ResponseEntity<List<ShiftView>> getUserConflicts(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime stopTime) {
+        if (!startTime.isBefore(stopTime)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(shiftService.getUserConflicts(userId, startTime, stopTime));
+    }
+
     @PostMapping
     public ResponseEntity<Shift> createShift(@Valid @RequestBody Shift shift) {
         try {
             Shift createdShift = shiftService.createShift(shift);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdShift);
+        } catch (UserServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (ShiftConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 批量创建排班（同一公司，同一事务）
+     * POST /api/shifts/bulk
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Shift>> createShifts(@Valid @RequestBody BulkShiftRequest request) {
+        try {
+            List<Shift> createdShifts = shiftService.createShifts(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdShifts);
+        } catch (UserServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (ShiftConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -75,8 +226,14 @@ public class ShiftController {
         try {
             Shift updatedShift = shiftService.updateShift(id, shift);
             return ResponseEntity.ok(updatedShift);
-        } catch (RuntimeException e) {
+        } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (UserServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (ShiftConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -85,7 +242,7 @@ public class ShiftController {
         try {
             shiftService.deleteShift(id);
             return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
+        } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
@@ -0,0 +1,58 @@
+package com.staffjoy.shift.controller;
+
+import com.staffjoy.shift.dto.ShiftView;
+import com.staffjoy.shift.repository.ShiftReactiveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * 排班响应式只读API控制器（NDJSON 流，每行一个排班）
+ *
+ * 数据由 R2DBC 非阻塞读取，Spring MVC 以异步请求逐条写出：请求线程在返回 Flux 后立即释放，
+ * 写完一条才向数据库请求下一条，慢客户端不会让结果堆积在内存中。
+ * 与 ShiftController 中对应的接口相比不分页、不经过 JPA。
+ */
+@RestController
+@RequestMapping("/api/shifts/reactive")
+public class ShiftStreamController {
+
+    private final ShiftReactiveRepository shiftReactiveRepository;
+
+    @Autowired
+    public ShiftStreamController(ShiftReactiveRepository shiftReactiveRepository) {
+        this.shiftReactiveRepository = shiftReactiveRepository;
+    }
+
+    /**
+     * 获取指定公司的所有排班
+     * GET /api/shifts/reactive/company/{companyId}
+     */
+    @GetMapping(value = "/company/{companyId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ShiftView> getShiftsByCompanyId(@PathVariable Long companyId) {
+        return shiftReactiveRepository.findByCompanyId(companyId);
+    }
+
+    /**
+     * 获取指定时间范围内的排班
+     * GET /api/shifts/reactive/between?startTime=&stopTime=
+     */
+    @GetMapping(value = "/between", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<ShiftView>> getShiftsBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime stopTime) {
+        if (!startTime.isBefore(stopTime)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(shiftReactiveRepository.findShiftsBetween(startTime, stopTime));
+    }
+}
@@ -0,0 +1,79 @@
+package com.staffjoy.shift.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.staffjoy.common.dto.UserChangeBatch;
+import com.staffjoy.shift.client.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 用户缓存管理接口（内部使用）
+ * 用户在 user-service 中被创建、更新或删除后，由 user-service 的发件箱投递变更事件使缓存失效
+ * 网关不转发 /api/internal/**；请求必须携带服务间共享令牌（X-Internal-Token，见 common 模块的 InternalApiTokenFilter）
+ */
+@RestController
+@RequestMapping("/api/internal/user-cache")
+public class UserCacheController {
+
+    private final UserCache userCache;
+
+    @Autowired
+    public UserCacheController(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    /**
+     * 查看缓存统计
+     * GET /api/internal/user-cache/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        CacheStats stats = userCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", userCache.size());
+        body.put("hitCount", stats.hitCount());
+        body.put("missCount", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictionCount", stats.evictionCount());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * 接收 user-service 发件箱投递的用户变更事件，按顺序使对应用户的缓存失效
+     * 重复投递的事件再次失效即可，无需去重
+     * POST /api/internal/user-cache/events
+     */
+    @PostMapping("/events")
+    public ResponseEntity<Void> onUserChanges(@RequestBody UserChangeBatch batch) {
+        for (UserChangeBatch.Event event : batch.getEvents()) {
+            if (event.getUserId() != null) {
+                userCache.evict(event.getUserId());
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 使单个用户的缓存失效
+     * DELETE /api/internal/user-cache/{userId}
+     */
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> evict(@PathVariable Long userId) {
+        userCache.evict(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 清空全部用户缓存
+     * DELETE /api/internal/user-cache
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        userCache.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.staffjoy.shift.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量创建排班请求
+ * 同一请求中的排班属于同一个公司（通常是某公司一周的排班）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkShiftRequest {
+
+    /**
+     * 单次最多创建的排班数量
+     */
+    public static final int MAX_SHIFTS = 5000;
+
+    @NotNull(message = "公司ID不能为空")
+    private Long companyId;
+
+    @NotEmpty(message = "排班列表不能为空")
+    @Size(max = MAX_SHIFTS, message = "单次最多创建 " + MAX_SHIFTS + " 个排班")
+    @Valid
+    private List<Item> shifts;
+
+    /**
+     * 单个排班
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull(message = "用户ID不能为空")
+        private Long userId;
+
+        @NotNull(message = "开始时间不能为空")
+        private LocalDateTime startTime;
+
+        @NotNull(message = "结束时间不能为空")
+        private LocalDateTime stopTime;
+
+        private Boolean published = false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.staffjoy.shift.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 公司只读视图（查询接口使用）
+ * 不包含 shifts 集合，避免序列化时逐个公司懒加载排班
+ * 字段顺序与 JPQL 构造器表达式 new CompanyView(...) 一致
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyView {
+
+    private Long id;
+    private String name;
+    private String legalName;
+    private String description;
+    private String website;
+    private String phoneNumber;
+    private String address;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package com.staffjoy.shift.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 公司周排班视图（GET /api/shifts/company/{companyId}/schedule 的响应体）
+ * 以 JSON 形式预先保存在 company_week_schedules.document 中
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyWeekScheduleView {
+
+    private Long companyId;
+
+    /**
+     * 周一
+     */
+    private LocalDate weekStart;
+
+    /**
+     * 下周一（不包含）
+     */
+    private LocalDate weekEnd;
+
+    private Integer shiftCount;
+
+    /**
+     * 按开始时间排序
+     */
+    private List<ShiftView> shifts;
+}
@@ -0,0 +1,27 @@
+package com.staffjoy.shift.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批量发布排班的结果（POST /api/companies/{id}/publish 的响应体）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublishShiftsResponse {
+
+    private Long companyId;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    /**
+     * 本次发布的排班数量（已发布的排班不重复计数）
+     */
+    private Integer published;
+}
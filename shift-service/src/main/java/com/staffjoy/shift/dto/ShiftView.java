@@ -0,0 +1,45 @@
+package com.staffjoy.shift.dto;
+
+import com.staffjoy.shift.model.Shift;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 排班只读视图（查询接口和导出使用）
+ * 只包含 companyId，不序列化 Company 代理，避免列表接口逐行加载公司（N+1 查询）
+ * 字段顺序与 JPQL 构造器表达式 new ShiftView(...) 一致
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftView {
+
+    private Long id;
+    private Long userId;
+    private Long companyId;
+    private LocalDateTime startTime;
+    private LocalDateTime stopTime;
+    private Boolean published;
+    private LocalDateTime publishedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * 从实体转换；company 为懒加载代理时 getId() 不会触发查询
+     */
+    public static ShiftView from(Shift shift) {
+        return new ShiftView(
+                shift.getId(),
+                shift.getUserId(),
+                shift.getCompany().getId(),
+                shift.getStartTime(),
+                shift.getStopTime(),
+                shift.getPublished(),
+                shift.getPublishedAt(),
+                shift.getCreatedAt(),
+                shift.getUpdatedAt());
+    }
+}
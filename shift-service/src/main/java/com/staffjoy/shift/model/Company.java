@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,14 +16,22 @@ import java.util.List;
 /**
  * 公司实体类
  * 微服务架构中，移除了对 User 的直接 JPA 关联（User 在另一个服务中）
+ * 公司很少修改，放入 Hibernate 二级缓存（READ_WRITE），按ID加载时不访问数据库
  */
 @Entity
 @Table(name = "companies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Company.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Company {
 
+    /**
+     * 二级缓存区域名称（区域在 HibernateCacheConfig 中创建）
+     */
+    public static final String CACHE_REGION = "company";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
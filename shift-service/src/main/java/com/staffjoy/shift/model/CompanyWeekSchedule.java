@@ -0,0 +1,70 @@
+package com.staffjoy.shift.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 公司周排班读模型（反范式）
+ *
+ * 每个 公司 + 周 一行，document 保存该周排班的完整 JSON（CompanyWeekScheduleView）。
+ * 创建/修改/删除排班的事务只把受影响的周标记为 stale，由 CompanyWeekScheduleRebuilder 合并后重新生成，
+ * 查询时按主键读取一行直接返回。
+ * 周从周一开始，排班按 start_time 所在的周归属。
+ */
+@Entity
+@Table(name = "company_week_schedules")
+@IdClass(CompanyWeekSchedule.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyWeekSchedule {
+
+    @Id
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Id
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "shift_count", nullable = false)
+    private Integer shiftCount;
+
+    /**
+     * 预先序列化的响应 JSON，第一次生成之前为 null
+     */
+    @Column(columnDefinition = "TEXT")
+    private String document;
+
+    /**
+     * 每次排班写入加 1，用作 ETag；重新生成时用于判断期间是否又有写入
+     */
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * document 已过期，等待重新生成
+     */
+    @Column(nullable = false)
+    private Boolean stale;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * 复合主键
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long companyId;
+        private LocalDate weekStart;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 /**
@@ -21,8 +22,20 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Shift {
 
+    /**
+     * 单个排班的最长时长（数据库约束 chk_shifts_max_duration 与之一致）
+     * shifts 按 start_time 月份分区，有了上限，与某个时间窗口重叠的排班只可能开始于
+     * (窗口开始 - MAX_DURATION, 窗口结束)，跨分区的重叠检查和重叠查询只需要看 1～2 个分区
+     */
+    public static final Duration MAX_DURATION = Duration.ofDays(1);
+
+    /**
+     * 使用序列 + pooled 优化器分配主键（allocationSize 需与序列步长一致）
+     * IDENTITY 会使 Hibernate 无法批量插入
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shifts_seq")
+    @SequenceGenerator(name = "shifts_seq", sequenceName = "shifts_id_seq", allocationSize = 50)
     private Long id;
 
     /**
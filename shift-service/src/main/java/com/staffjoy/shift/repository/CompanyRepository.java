@@ -1,9 +1,15 @@
 package com.staffjoy.shift.repository;
 
+import com.staffjoy.shift.dto.CompanyView;
 import com.staffjoy.shift.model.Company;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,8 +18,35 @@ import java.util.Optional;
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long> {
 
+    /**
+     * 公司查询缓存区域名称（区域在 HibernateCacheConfig 中创建）
+     * companies 表有写入时，Hibernate 会使该区域中的结果失效
+     */
+    String QUERY_CACHE_REGION = "company-queries";
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = QUERY_CACHE_REGION)
+    })
     Optional<Company> findByName(String name);
 
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = QUERY_CACHE_REGION)
+    })
     boolean existsByName(String name);
+
+    /**
+     * 只读查询使用的 DTO 投影，不加载 shifts 集合
+     */
+    String COMPANY_VIEW_SELECT = "SELECT new com.staffjoy.shift.dto.CompanyView(" +
+            "c.id, c.name, c.legalName, c.description, c.website, " +
+            "c.phoneNumber, c.address, c.createdAt, c.updatedAt) FROM Company c ";
+
+    @Query(COMPANY_VIEW_SELECT + "WHERE c.id = :id")
+    Optional<CompanyView> findViewById(@Param("id") Long id);
+
+    @Query(COMPANY_VIEW_SELECT + "ORDER BY c.id")
+    List<CompanyView> findAllViews();
 }
 
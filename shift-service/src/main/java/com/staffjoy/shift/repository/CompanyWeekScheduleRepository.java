@@ -0,0 +1,42 @@
+package com.staffjoy.shift.repository;
+
+import com.staffjoy.shift.model.CompanyWeekSchedule;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 公司周排班读模型数据访问层
+ */
+@Repository
+public interface CompanyWeekScheduleRepository
+        extends JpaRepository<CompanyWeekSchedule, CompanyWeekSchedule.Key>, CompanyWeekScheduleRepositoryCustom {
+
+    @Query("SELECT w FROM CompanyWeekSchedule w WHERE w.stale = true ORDER BY w.updatedAt")
+    List<CompanyWeekSchedule> findStale(Pageable pageable);
+
+    /**
+     * 保存重新生成的 JSON，只有 version 仍为读取时的值才更新（期间没有新的写入）
+     */
+    @Modifying
+    @Query("UPDATE CompanyWeekSchedule w SET w.document = :document, w.shiftCount = :shiftCount, " +
+           "w.stale = false, w.updatedAt = :now " +
+           "WHERE w.companyId = :companyId AND w.weekStart = :weekStart AND w.version = :version")
+    int saveRebuilt(@Param("companyId") Long companyId,
+                    @Param("weekStart") LocalDate weekStart,
+                    @Param("version") Long version,
+                    @Param("shiftCount") Integer shiftCount,
+                    @Param("document") String document,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM CompanyWeekSchedule w WHERE w.companyId = :companyId")
+    int deleteByCompanyId(@Param("companyId") Long companyId);
+}
@@ -0,0 +1,16 @@
+package com.staffjoy.shift.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 公司周排班读模型中需要按数据库方言实现的操作
+ */
+public interface CompanyWeekScheduleRepositoryCustom {
+
+    /**
+     * 把一周标记为待重新生成，version 加 1（ETag 随之变化）；这一周还没有行时插入一行（version 为 1）
+     * 一条语句完成，同一周的并发写事务不需要事先加锁
+     */
+    void markStale(Long companyId, LocalDate weekStart, LocalDateTime now);
+}
@@ -0,0 +1,70 @@
+package com.staffjoy.shift.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CompanyWeekScheduleRepositoryCustom 的实现
+ *
+ * - PostgreSQL：INSERT ... ON CONFLICT (company_id, week_start) DO UPDATE，并发插入同一周时后到的事务
+ *   等待前一个提交后转为更新，不会违反主键
+ * - 其它数据库（H2）：标准 MERGE。并发插入同一周时可能违反主键（另一个事务先插入了这一行），
+ *   此时重试一次，重试时走更新分支
+ *
+ * 通过 Session.doWork 直接执行 JDBC 语句：重试前的失败不经过 Hibernate 的异常转换，不会把事务标记为只能回滚；
+ * 也不会像未声明查询空间的原生语句那样清空二级缓存
+ */
+class CompanyWeekScheduleRepositoryCustomImpl implements CompanyWeekScheduleRepositoryCustom {
+
+    private static final String POSTGRESQL_UPSERT =
+            "INSERT INTO company_week_schedules " +
+            "(company_id, week_start, shift_count, document, version, stale, updated_at) " +
+            "VALUES (?, ?, 0, NULL, 1, TRUE, ?) " +
+            "ON CONFLICT (company_id, week_start) DO UPDATE " +
+            "SET stale = TRUE, version = company_week_schedules.version + 1, updated_at = EXCLUDED.updated_at";
+
+    private static final String STANDARD_MERGE =
+            "MERGE INTO company_week_schedules w " +
+            "USING (SELECT CAST(? AS BIGINT) AS company_id, CAST(? AS DATE) AS week_start, " +
+            "CAST(? AS TIMESTAMP) AS updated_at) v " +
+            "ON w.company_id = v.company_id AND w.week_start = v.week_start " +
+            "WHEN MATCHED THEN UPDATE SET stale = TRUE, version = w.version + 1, updated_at = v.updated_at " +
+            "WHEN NOT MATCHED THEN INSERT (company_id, week_start, shift_count, document, version, stale, updated_at) " +
+            "VALUES (v.company_id, v.week_start, 0, NULL, 1, TRUE, v.updated_at)";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final EntityManager entityManager;
+    private final boolean postgres;
+
+    CompanyWeekScheduleRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.postgres = DatabaseDialects.isPostgreSQL(entityManager);
+    }
+
+    @Override
+    public void markStale(Long companyId, LocalDate weekStart, LocalDateTime now) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(postgres ? POSTGRESQL_UPSERT : STANDARD_MERGE)) {
+                statement.setLong(1, companyId);
+                statement.setDate(2, Date.valueOf(weekStart));
+                statement.setTimestamp(3, Timestamp.valueOf(now));
+                try {
+                    statement.executeUpdate();
+                } catch (SQLException e) {
+                    if (postgres || !UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    statement.executeUpdate();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.staffjoy.shift.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * 按 Hibernate 方言选择数据库专用语句（生产环境 PostgreSQL，默认 profile 和测试使用 H2）
+ */
+final class DatabaseDialects {
+
+    private DatabaseDialects() {
+    }
+
+    static boolean isPostgreSQL(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
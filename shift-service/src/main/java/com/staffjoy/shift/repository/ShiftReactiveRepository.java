@@ -0,0 +1,105 @@
+package com.staffjoy.shift.repository;
+
+import com.staffjoy.shift.config.ReactiveReadProperties;
+import com.staffjoy.shift.dto.ShiftView;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * 排班响应式只读数据访问层（R2DBC）
+ *
+ * 与 ShiftRepository（JPA）访问同一张 shifts 表，只用于只读查询。
+ * 结果按 fetchSize 分批从数据库游标读取，下游未请求时不会读取下一批（背压）。
+ *
+ * 连接池按 spring.r2dbc 在这里自行创建，不注册为 ConnectionFactory Bean：
+ * 容器中存在 ConnectionFactory 时 DataSourceAutoConfiguration 不会生效，JPA 会随之失效
+ * （ShiftServiceApplication 排除了 R2dbcAutoConfiguration）。
+ */
+@Repository
+public class ShiftReactiveRepository implements DisposableBean {
+
+    private static final String SHIFT_VIEW_SELECT = "SELECT id, user_id, company_id, start_time, stop_time, " +
+            "published, published_at, created_at, updated_at FROM shifts ";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    @Autowired
+    public ShiftReactiveRepository(R2dbcProperties r2dbcProperties, ReactiveReadProperties properties) {
+        this.connectionPool = createConnectionPool(r2dbcProperties);
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.fetchSize = properties.getFetchSize();
+    }
+
+    /**
+     * 公司的全部排班，按 id 升序（索引 idx_shifts_company_id_id）
+     */
+    public Flux<ShiftView> findByCompanyId(Long companyId) {
+        return databaseClient.sql(SHIFT_VIEW_SELECT + "WHERE company_id = :companyId ORDER BY id")
+                .bind("companyId", companyId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ShiftReactiveRepository::toView)
+                .all();
+    }
+
+    /**
+     * 指定时间范围内的排班，条件与 ShiftRepository.findShiftsBetween 相同（带 start_time 上界，可按分区裁剪）
+     */
+    public Flux<ShiftView> findShiftsBetween(LocalDateTime startTime, LocalDateTime stopTime) {
+        return databaseClient.sql(SHIFT_VIEW_SELECT +
+                        "WHERE start_time >= :startTime AND start_time < :stopTime AND stop_time <= :stopTime")
+                .bind("startTime", startTime)
+                .bind("stopTime", stopTime)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ShiftReactiveRepository::toView)
+                .all();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static ConnectionPool createConnectionPool(R2dbcProperties properties) {
+        ConnectionFactoryBuilder builder = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        if (properties.getUsername() != null) {
+            builder.username(properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            builder.password(properties.getPassword());
+        }
+        ConnectionFactory connectionFactory = builder.build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("shift-reactive-reads")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+
+    private static ShiftView toView(Readable row) {
+        return new ShiftView(
+                row.get("id", Long.class),
+                row.get("user_id", Long.class),
+                row.get("company_id", Long.class),
+                row.get("start_time", LocalDateTime.class),
+                row.get("stop_time", LocalDateTime.class),
+                row.get("published", Boolean.class),
+                row.get("published_at", LocalDateTime.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -1,53 +1,130 @@
 package com.staffjoy.shift.repository;
 
+import com.staffjoy.shift.dto.ShiftView;
 import com.staffjoy.shift.model.Shift;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 排班数据访问层
  */
 @Repository
-public interface ShiftRepository extends JpaRepository<Shift, Long> {
+public interface ShiftRepository extends JpaRepository<Shift, Long>, ShiftRepositoryCustom {
 
     /**
-     * 根据用户ID查找所有排班
+     * 只读查询使用的 DTO 投影：s.company.id 直接读取外键列，不会关联或加载 Company
      */
-    List<Shift> findByUserId(Long userId);
+    String SHIFT_VIEW_SELECT = "SELECT new com.staffjoy.shift.dto.ShiftView(" +
+            "s.id, s.userId, s.company.id, s.startTime, s.stopTime, " +
+            "s.published, s.publishedAt, s.createdAt, s.updatedAt) FROM Shift s ";
 
     /**
-     * 根据公司ID查找所有排班
+     * Keyset 分页：按 id 升序查询 afterId 之后的排班
+     * pageable 只用于限制条数（PageRequest.of(0, n)），返回 List 不会触发 count 查询
      */
-    List<Shift> findByCompanyId(Long companyId);
+    @Query(SHIFT_VIEW_SELECT + "WHERE s.id > :afterId ORDER BY s.id")
+    List<ShiftView> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset 分页：根据用户ID查找排班（索引 idx_shifts_user_id_id）
+     */
+    @Query(SHIFT_VIEW_SELECT + "WHERE s.userId = :userId AND s.id > :afterId ORDER BY s.id")
+    List<ShiftView> findByUserIdAfter(@Param("userId") Long userId,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    /**
+     * Keyset 分页：根据公司ID查找排班（索引 idx_shifts_company_id_id）
+     */
+    @Query(SHIFT_VIEW_SELECT + "WHERE s.company.id = :companyId AND s.id > :afterId ORDER BY s.id")
+    List<ShiftView> findByCompanyIdAfter(@Param("companyId") Long companyId,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
 
     /**
      * 根据用户ID和公司ID查找排班
      */
     List<Shift> findByUserIdAndCompanyId(Long userId, Long companyId);
 
+    /**
+     * 流式读取公司在某时间范围内的排班（用于导出）
+     * 通过 JDBC fetch size 分批从游标读取，必须在事务内消费并关闭 Stream
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT s FROM Shift s WHERE s.company.id = :companyId " +
+           "AND s.startTime >= :from AND s.startTime < :to ORDER BY s.startTime, s.id")
+    Stream<Shift> streamByCompanyIdBetween(@Param("companyId") Long companyId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    /**
+     * 公司在 [from, to) 内开始的排班（生成周排班读模型），使用 (company_id, start_time) 索引
+     */
+    @Query(SHIFT_VIEW_SELECT + "WHERE s.company.id = :companyId " +
+           "AND s.startTime >= :from AND s.startTime < :to ORDER BY s.startTime, s.id")
+    List<ShiftView> findViewsByCompanyIdStartingBetween(@Param("companyId") Long companyId,
+                                                        @Param("from") LocalDateTime from,
+                                                        @Param("to") LocalDateTime to);
+
+    /**
+     * 公司在 [from, to) 内开始、尚未发布的排班的开始时间（发布前用于确定受影响的周）
+     */
+    @Query("SELECT s.startTime FROM Shift s WHERE s.company.id = :companyId " +
+           "AND s.published = false AND s.startTime >= :from AND s.startTime < :to")
+    List<LocalDateTime> findUnpublishedStartTimes(@Param("companyId") Long companyId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    /**
+     * 一条 UPDATE 发布公司在 [from, to) 内开始的所有未发布排班，返回受影响行数
+     * 批量 UPDATE 不经过实体，不会触发 @PreUpdate，这里按 Shift.onUpdate 的规则设置 published_at / updated_at
+     * （PostgreSQL 上 set_published_at / update_updated_at_column 触发器会再以 CURRENT_TIMESTAMP 覆盖）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Shift s SET s.published = true, " +
+           "s.publishedAt = COALESCE(s.publishedAt, :now), s.updatedAt = :now " +
+           "WHERE s.company.id = :companyId AND s.published = false " +
+           "AND s.startTime >= :from AND s.startTime < :to")
+    int publishByCompanyIdStartingBetween(@Param("companyId") Long companyId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("now") LocalDateTime now);
+
     /**
      * 查找指定时间范围内的排班
+     * s.startTime < :stopTime 由 stopTime 条件推出，写明后 PostgreSQL 可以按分区键裁剪到相关月份的分区
      */
-    @Query("SELECT s FROM Shift s WHERE s.startTime >= :startTime AND s.stopTime <= :stopTime")
-    List<Shift> findShiftsBetween(@Param("startTime") LocalDateTime startTime, 
-                                   @Param("stopTime") LocalDateTime stopTime);
+    @Query(SHIFT_VIEW_SELECT + "WHERE s.startTime >= :startTime AND s.startTime < :stopTime " +
+           "AND s.stopTime <= :stopTime")
+    List<ShiftView> findShiftsBetween(@Param("startTime") LocalDateTime startTime,
+                                      @Param("stopTime") LocalDateTime stopTime);
 
     /**
      * 查找指定用户在某时间范围内的排班
      */
-    @Query("SELECT s FROM Shift s WHERE s.userId = :userId AND s.startTime >= :startTime AND s.stopTime <= :stopTime")
+    @Query("SELECT s FROM Shift s WHERE s.userId = :userId AND s.startTime >= :startTime " +
+           "AND s.startTime < :stopTime AND s.stopTime <= :stopTime")
     List<Shift> findUserShiftsBetween(@Param("userId") Long userId,
                                       @Param("startTime") LocalDateTime startTime,
                                       @Param("stopTime") LocalDateTime stopTime);
 
     /**
-     * 查找已发布的排班
+     * Keyset 分页：查找已发布的排班（部分索引 idx_shifts_published_id）
      */
-    List<Shift> findByPublishedTrue();
+    @Query(SHIFT_VIEW_SELECT + "WHERE s.published = true AND s.id > :afterId ORDER BY s.id")
+    List<ShiftView> findPublishedAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
 
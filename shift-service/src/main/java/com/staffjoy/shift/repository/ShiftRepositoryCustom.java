@@ -0,0 +1,22 @@
+package com.staffjoy.shift.repository;
+
+import com.staffjoy.shift.model.Shift;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 排班数据访问中需要按数据库方言实现的查询
+ */
+public interface ShiftRepositoryCustom {
+
+    /**
+     * 查找与时间窗口 [startTime, stopTime) 有重叠的排班，按开始时间排序
+     */
+    List<Shift> findShiftsOverlapping(LocalDateTime startTime, LocalDateTime stopTime);
+
+    /**
+     * 查找用户与时间窗口 [startTime, stopTime) 冲突的排班，按开始时间排序
+     */
+    List<Shift> findUserShiftsOverlapping(Long userId, LocalDateTime startTime, LocalDateTime stopTime);
+}
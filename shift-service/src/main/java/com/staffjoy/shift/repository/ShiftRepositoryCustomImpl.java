@@ -0,0 +1,71 @@
+package com.staffjoy.shift.repository;
+
+import com.staffjoy.shift.model.Shift;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ShiftRepositoryCustom 的实现
+ *
+ * - PostgreSQL：time_range 生成列 && tsrange，使用 GiST 索引 idx_shifts_time_range /
+ *   每个分区排他约束自带的 (user_id, time_range) 索引
+ * - 其它数据库（H2）：没有 tsrange，用 start_time < :stopTime AND stop_time > :startTime 判断重叠
+ *
+ * 排班时长不超过 Shift.MAX_DURATION，两种实现都加上 start_time > :startTime - MAX_DURATION，
+ * PostgreSQL 据此只扫描 1～2 个月的分区
+ */
+class ShiftRepositoryCustomImpl implements ShiftRepositoryCustom {
+
+    private static final String POSTGRESQL_OVERLAPPING =
+            "SELECT s.* FROM shifts s " +
+            "WHERE s.start_time > :earliestStart " +
+            "AND s.start_time < :stopTime " +
+            "AND s.time_range && tsrange(CAST(:startTime AS timestamp), CAST(:stopTime AS timestamp), '[)') ";
+
+    private static final String POSTGRESQL_ORDER_BY = "ORDER BY s.start_time, s.id";
+
+    private static final String PORTABLE_OVERLAPPING =
+            "SELECT s FROM Shift s " +
+            "WHERE s.startTime > :earliestStart " +
+            "AND s.startTime < :stopTime " +
+            "AND s.stopTime > :startTime ";
+
+    private static final String PORTABLE_ORDER_BY = "ORDER BY s.startTime, s.id";
+
+    private final EntityManager entityManager;
+    private final boolean postgres;
+
+    ShiftRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.postgres = DatabaseDialects.isPostgreSQL(entityManager);
+    }
+
+    @Override
+    public List<Shift> findShiftsOverlapping(LocalDateTime startTime, LocalDateTime stopTime) {
+        return findOverlapping(null, startTime, stopTime);
+    }
+
+    @Override
+    public List<Shift> findUserShiftsOverlapping(Long userId, LocalDateTime startTime, LocalDateTime stopTime) {
+        return findOverlapping(userId, startTime, stopTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Shift> findOverlapping(Long userId, LocalDateTime startTime, LocalDateTime stopTime) {
+        Query query = postgres
+                ? entityManager.createNativeQuery(POSTGRESQL_OVERLAPPING
+                        + (userId != null ? "AND s.user_id = :userId " : "") + POSTGRESQL_ORDER_BY, Shift.class)
+                : entityManager.createQuery(PORTABLE_OVERLAPPING
+                        + (userId != null ? "AND s.userId = :userId " : "") + PORTABLE_ORDER_BY, Shift.class);
+        query.setParameter("earliestStart", startTime.minus(Shift.MAX_DURATION))
+                .setParameter("startTime", startTime)
+                .setParameter("stopTime", stopTime);
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        return query.getResultList();
+    }
+}
@@ -1,7 +1,10 @@
 package com.staffjoy.shift.service;
 
+import com.staffjoy.shift.dto.CompanyView;
 import com.staffjoy.shift.model.Company;
 import com.staffjoy.shift.repository.CompanyRepository;
+import com.staffjoy.shift.repository.CompanyWeekScheduleRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,14 +16,17 @@ import java.util.Optional;
  * 公司业务逻辑层
  */
 @Service
+@Timed("staffjoy.service")
 @Transactional
 public class CompanyService {
 
     private final CompanyRepository companyRepository;
+    private final CompanyWeekScheduleRepository scheduleRepository;
 
     @Autowired
-    public CompanyService(CompanyRepository companyRepository) {
+    public CompanyService(CompanyRepository companyRepository, CompanyWeekScheduleRepository scheduleRepository) {
         this.companyRepository = companyRepository;
+        this.scheduleRepository = scheduleRepository;
     }
 
     public Company createCompany(Company company) {
@@ -31,8 +37,8 @@ public class CompanyService {
     }
 
     @Transactional(readOnly = true)
-    public Optional<Company> getCompanyById(Long id) {
-        return companyRepository.findById(id);
+    public Optional<CompanyView> getCompanyById(Long id) {
+        return companyRepository.findViewById(id);
     }
 
     @Transactional(readOnly = true)
@@ -41,8 +47,8 @@ public class CompanyService {
     }
 
     @Transactional(readOnly = true)
-    public List<Company> getAllCompanies() {
-        return companyRepository.findAll();
+    public List<CompanyView> getAllCompanies() {
+        return companyRepository.findAllViews();
     }
 
     public Company updateCompany(Long id, Company companyDetails) {
@@ -78,6 +84,8 @@ public class CompanyService {
         if (!companyRepository.existsById(id)) {
             throw new RuntimeException("公司不存在，ID: " + id);
         }
+        // PostgreSQL 上由外键级联删除，这里显式删除以兼容 H2（ddl-auto 建表没有级联）
+        scheduleRepository.deleteByCompanyId(id);
         companyRepository.deleteById(id);
     }
 }
@@ -0,0 +1,43 @@
+package com.staffjoy.shift.service;
+
+import com.staffjoy.shift.config.WeekScheduleProperties;
+import com.staffjoy.shift.model.CompanyWeekSchedule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 定时重新生成待更新（stale）的周排班
+ *
+ * 每周单独一个事务，不持有公司锁；多个实例同时执行时，version 校验保证旧数据不会覆盖新数据。
+ */
+@Slf4j
+@Component
+public class CompanyWeekScheduleRebuilder {
+
+    private final CompanyWeekScheduleService scheduleService;
+    private final WeekScheduleProperties properties;
+
+    @Autowired
+    public CompanyWeekScheduleRebuilder(CompanyWeekScheduleService scheduleService,
+                                        WeekScheduleProperties properties) {
+        this.scheduleService = scheduleService;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${staffjoy.week-schedule.rebuild-interval:PT1S}")
+    public void rebuildStale() {
+        List<CompanyWeekSchedule> stale = scheduleService.findStale(properties.getRebuildBatchSize());
+        for (CompanyWeekSchedule schedule : stale) {
+            try {
+                scheduleService.rebuild(schedule.getCompanyId(), schedule.getWeekStart(), schedule.getVersion());
+            } catch (RuntimeException e) {
+                log.warn("重新生成周排班失败，公司ID: {}, 周: {}: {}",
+                        schedule.getCompanyId(), schedule.getWeekStart(), e.toString());
+            }
+        }
+    }
+}
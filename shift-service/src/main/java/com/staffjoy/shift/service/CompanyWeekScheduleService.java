@@ -0,0 +1,135 @@
+package com.staffjoy.shift.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staffjoy.shift.dto.CompanyWeekScheduleView;
+import com.staffjoy.shift.dto.ShiftView;
+import com.staffjoy.shift.model.CompanyWeekSchedule;
+import com.staffjoy.shift.repository.CompanyRepository;
+import com.staffjoy.shift.repository.CompanyWeekScheduleRepository;
+import com.staffjoy.shift.repository.ShiftRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * 公司周排班读模型
+ *
+ * - 写入：ShiftService 在创建/修改/删除排班的事务内调用 refresh，只把受影响的周标记为待重新生成（stale）
+ *   并递增 version（一条 upsert），不在写事务内序列化整周排班，同一公司的写事务之间不需要加锁
+ * - 重新生成：CompanyWeekScheduleRebuilder 定时调用 rebuildStale，同一周在间隔内的多次写入合并为一次序列化；
+ *   保存时校验 version，期间又有写入时本次结果作废，留给下一轮
+ * - 读取：只读事务，按 (company_id, week_start) 主键读取一行直接返回预先序列化的 JSON；
+ *   待重新生成或还没有生成的周（例如读模型上线前的数据）直接查询排班生成响应，不写入读模型
+ */
+@Service
+@Timed("staffjoy.service")
+public class CompanyWeekScheduleService {
+
+    private final CompanyWeekScheduleRepository scheduleRepository;
+    private final ShiftRepository shiftRepository;
+    private final CompanyRepository companyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CompanyWeekScheduleService(CompanyWeekScheduleRepository scheduleRepository,
+                                      ShiftRepository shiftRepository,
+                                      CompanyRepository companyRepository,
+                                      ObjectMapper objectMapper) {
+        this.scheduleRepository = scheduleRepository;
+        this.shiftRepository = shiftRepository;
+        this.companyRepository = companyRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 所在周的周一
+     */
+    public static LocalDate weekStartOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public static LocalDate weekStartOf(LocalDateTime time) {
+        return weekStartOf(time.toLocalDate());
+    }
+
+    /**
+     * 获取公司某一周的排班（date 可以是该周的任意一天）
+     * 返回的对象不一定对应数据库中的一行（未生成的周 version 为 0），调用方不能修改或保存
+     */
+    @Transactional(readOnly = true)
+    public CompanyWeekSchedule getWeek(Long companyId, LocalDate date) {
+        LocalDate weekStart = weekStartOf(date);
+        Optional<CompanyWeekSchedule> stored = scheduleRepository.findById(new CompanyWeekSchedule.Key(companyId, weekStart));
+        if (stored.isPresent() && !stored.get().getStale()) {
+            return stored.get();
+        }
+        if (stored.isEmpty() && !companyRepository.existsById(companyId)) {
+            throw new ResourceNotFoundException("公司不存在，ID: " + companyId);
+        }
+        CompanyWeekScheduleView view = buildView(companyId, weekStart);
+        long version = stored.map(CompanyWeekSchedule::getVersion).orElse(0L);
+        return new CompanyWeekSchedule(companyId, weekStart, view.getShiftCount(), serialize(view), version,
+                false, LocalDateTime.now());
+    }
+
+    /**
+     * 把公司受影响的周标记为待重新生成，还没有生成过的周插入一行
+     * 必须在排班写事务内调用；按周排序后逐周 upsert，并发的写事务以相同顺序锁定读模型的行，不会互相死锁
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Long companyId, Collection<LocalDate> weekStarts) {
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDate weekStart : new TreeSet<>(weekStarts)) {
+            scheduleRepository.markStale(companyId, weekStart, now);
+        }
+    }
+
+    /**
+     * 待重新生成的周，按标记时间排序
+     */
+    @Transactional
+    public List<CompanyWeekSchedule> findStale(int limit) {
+        return scheduleRepository.findStale(PageRequest.of(0, limit));
+    }
+
+    /**
+     * 重新生成一周的排班 JSON
+     *
+     * @param version 读取待更新行时的 version
+     * @return 是否保存成功；期间又有写入（version 已变化）时返回 false，该周仍为待重新生成
+     */
+    @Transactional
+    public boolean rebuild(Long companyId, LocalDate weekStart, long version) {
+        CompanyWeekScheduleView view = buildView(companyId, weekStart);
+        return scheduleRepository.saveRebuilt(companyId, weekStart, version,
+                view.getShiftCount(), serialize(view), LocalDateTime.now()) > 0;
+    }
+
+    private CompanyWeekScheduleView buildView(Long companyId, LocalDate weekStart) {
+        LocalDate weekEnd = weekStart.plusWeeks(1);
+        List<ShiftView> shifts = shiftRepository.findViewsByCompanyIdStartingBetween(
+                companyId, weekStart.atStartOfDay(), weekEnd.atStartOfDay());
+        return new CompanyWeekScheduleView(companyId, weekStart, weekEnd, shifts.size(), shifts);
+    }
+
+    private String serialize(CompanyWeekScheduleView view) {
+        try {
+            return objectMapper.writeValueAsString(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("周排班序列化失败，公司ID: " + view.getCompanyId(), e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.staffjoy.shift.service;
+
+/**
+ * 请求的公司或排班不存在（控制器返回 404）
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
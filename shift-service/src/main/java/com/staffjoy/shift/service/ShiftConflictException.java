@@ -0,0 +1,11 @@
+package com.staffjoy.shift.service;
+
+/**
+ * 排班与同一用户的已有排班时间重叠（违反排他约束，控制器返回 409）
+ */
+public class ShiftConflictException extends RuntimeException {
+
+    public ShiftConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
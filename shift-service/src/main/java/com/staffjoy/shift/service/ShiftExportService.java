@@ -0,0 +1,72 @@
+package com.staffjoy.shift.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.staffjoy.shift.dto.ShiftView;
+import com.staffjoy.shift.model.Shift;
+import com.staffjoy.shift.repository.ShiftRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 排班导出业务逻辑层
+ *
+ * 以 NDJSON（每行一个 JSON 对象）格式把公司排班直接写入输出流：
+ * 数据库端按 fetch size 分批读取，每写完一行就把实体从持久化上下文中移除，
+ * 因此内存占用与公司排班总数无关。
+ */
+@Service
+@Timed("staffjoy.service")
+public class ShiftExportService {
+
+    private final ShiftRepository shiftRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter lineWriter;
+
+    @Autowired
+    public ShiftExportService(ShiftRepository shiftRepository,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper) {
+        this.shiftRepository = shiftRepository;
+        this.entityManager = entityManager;
+        this.lineWriter = objectMapper.writerFor(ShiftView.class);
+    }
+
+    /**
+     * 导出公司在 [from, to) 时间范围内开始的排班
+     *
+     * @return 导出的行数
+     */
+    @Transactional(readOnly = true)
+    public long exportCompanyShifts(Long companyId, LocalDateTime from, LocalDateTime to,
+                                    OutputStream outputStream) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("开始时间必须早于结束时间");
+        }
+
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        long count = 0;
+        try (Stream<Shift> shifts = shiftRepository.streamByCompanyIdBetween(companyId, from, to)) {
+            Iterator<Shift> iterator = shifts.iterator();
+            while (iterator.hasNext()) {
+                Shift shift = iterator.next();
+                out.write(lineWriter.writeValueAsBytes(ShiftView.from(shift)));
+                out.write('\n');
+                entityManager.detach(shift);
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
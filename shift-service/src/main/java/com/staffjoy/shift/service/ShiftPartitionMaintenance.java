@@ -0,0 +1,93 @@
+package com.staffjoy.shift.service;
+
+import com.staffjoy.shift.config.ShiftPartitionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * shifts 分区维护（仅 PostgreSQL）
+ *
+ * - 提前创建当月及未来 monthsAhead 个月的分区（create_shifts_partition）
+ * - 按 retentionMonths 分离更早的分区，归档（改名为 shifts_archive_YYYYMM）或删除（archive_shifts_partitions），
+ *   同时删除这些月份的周排班读模型
+ *
+ * 多个实例同时执行时，只有拿到咨询锁的实例会执行；创建和分离分区需要锁住 shifts 表，
+ * 通过 lock_timeout 避免长时间阻塞正常请求（拿不到锁时本次跳过，下次再执行）。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "staffjoy.shift-partitions", name = "enabled", havingValue = "true")
+public class ShiftPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShiftPartitionProperties properties;
+
+    @Autowired
+    public ShiftPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     ShiftPartitionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${staffjoy.shift-partitions.cron:0 30 3 * * *}")
+    public void maintain() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(hashtext('shifts_partition_maintenance'))", Boolean.class);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("shifts 分区维护正在其它实例上执行，本次跳过");
+                    return;
+                }
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+
+                LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+                int created = 0;
+                for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+                    Boolean result = jdbcTemplate.queryForObject("SELECT create_shifts_partition(?)",
+                            Boolean.class, thisMonth.plusMonths(i));
+                    if (Boolean.TRUE.equals(result)) {
+                        created++;
+                    }
+                }
+
+                int archived = 0;
+                if (properties.getRetentionMonths() > 0) {
+                    LocalDate cutoff = thisMonth.minusMonths(properties.getRetentionMonths());
+                    Integer result = jdbcTemplate.queryForObject("SELECT archive_shifts_partitions(?, ?)",
+                            Integer.class, cutoff,
+                            properties.getArchiveMode() == ShiftPartitionProperties.ArchiveMode.DROP);
+                    archived = result != null ? result : 0;
+                    // 整周都在保留期之前的周排班不再需要
+                    jdbcTemplate.update("DELETE FROM company_week_schedules WHERE week_start <= ?",
+                            cutoff.minusWeeks(1));
+                }
+
+                if (created > 0 || archived > 0) {
+                    log.info("shifts 分区维护完成：新建 {} 个分区，{} {} 个分区", created,
+                            properties.getArchiveMode() == ShiftPartitionProperties.ArchiveMode.DROP ? "删除" : "归档",
+                            archived);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("shifts 分区维护失败，将在下次执行时重试: {}", e.toString());
+        }
+    }
+}
@@ -1,108 +1,263 @@
 package com.staffjoy.shift.service;
 
-import com.staffjoy.shift.client.UserServiceClient;
+import com.staffjoy.common.dto.CursorPage;
+import com.staffjoy.shift.client.UserCache;
+import com.staffjoy.shift.dto.BulkShiftRequest;
+import com.staffjoy.shift.dto.ShiftView;
 import com.staffjoy.shift.model.Company;
 import com.staffjoy.shift.model.Shift;
 import com.staffjoy.shift.repository.CompanyRepository;
 import com.staffjoy.shift.repository.ShiftRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 排班业务逻辑层
  * 使用 Feign Client 进行服务间通信，验证用户是否存在
+ * 用户校验结果经过 UserCache 本地缓存，避免每次写入都调用 user-service
  */
 @Service
+@Timed("staffjoy.service")
 @Transactional
 public class ShiftService {
 
+    /**
+     * 分区归档后加在默认分区上的约束（V8 archive_shifts_partitions），拒绝写入已归档月份的排班
+     */
+    private static final String ARCHIVED_MONTH_CONSTRAINT = "chk_shifts_default_not_archived";
+
     private final ShiftRepository shiftRepository;
     private final CompanyRepository companyRepository;
-    private final UserServiceClient userServiceClient;
+    private final UserCache userCache;
+    private final CompanyWeekScheduleService scheduleService;
+    private final EntityManager entityManager;
+
+    /**
+     * 批量插入时每批 flush/clear 的条数，与 hibernate.jdbc.batch_size 保持一致
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
 
     @Autowired
     public ShiftService(ShiftRepository shiftRepository,
                        CompanyRepository companyRepository,
-                       UserServiceClient userServiceClient) {
+                       UserCache userCache,
+                       CompanyWeekScheduleService scheduleService,
+                       EntityManager entityManager) {
         this.shiftRepository = shiftRepository;
         this.companyRepository = companyRepository;
-        this.userServiceClient = userServiceClient;
+        this.userCache = userCache;
+        this.scheduleService = scheduleService;
+        this.entityManager = entityManager;
     }
 
     /**
      * 创建新排班
      */
     public Shift createShift(Shift shift) {
-        // 验证公司是否存在
-        Company company = companyRepository.findById(shift.getCompany().getId())
-                .orElseThrow(() -> new RuntimeException("公司不存在，ID: " + shift.getCompany().getId()));
-
-        // 验证用户是否存在（通过 Feign Client 调用 user-service）
-        try {
-            UserServiceClient.UserResponse user = userServiceClient.getUserById(shift.getUserId());
-            if (user == null || user.getId() == null) {
-                throw new RuntimeException("用户不存在，ID: " + shift.getUserId());
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("无法验证用户是否存在，ID: " + shift.getUserId() + ", 错误: " + e.getMessage());
-        }
-
         // 验证时间逻辑
         if (shift.getStartTime().isAfter(shift.getStopTime()) || 
             shift.getStartTime().isEqual(shift.getStopTime())) {
             throw new RuntimeException("开始时间必须早于结束时间");
         }
+        validateDuration(shift.getStartTime(), shift.getStopTime());
+
+        // 验证用户是否存在（优先读取本地缓存，未命中时通过 Feign Client 调用 user-service）
+        // user-service 不可用时由熔断器快速失败，抛出 UserServiceUnavailableException
+        if (!userCache.exists(shift.getUserId())) {
+            throw new RuntimeException("用户不存在，ID: " + shift.getUserId());
+        }
+
+        // 验证公司是否存在
+        Company company = findCompany(shift.getCompany().getId());
 
         // 设置关联关系
         shift.setCompany(company);
 
-        return shiftRepository.save(shift);
+        // 立即 flush，使排他约束（同一用户排班不能重叠）的冲突在这里暴露
+        Shift saved;
+        try {
+            saved = shiftRepository.saveAndFlush(shift);
+        } catch (DataIntegrityViolationException e) {
+            throw writeFailure(e, "用户在该时间段已有排班，ID: " + shift.getUserId());
+        }
+        scheduleService.refresh(company.getId(), List.of(CompanyWeekScheduleService.weekStartOf(saved.getStartTime())));
+        return saved;
     }
 
+    /**
+     * 批量创建排班（同一事务）
+     * - 公司只校验一次
+     * - 所有用户通过一次批量调用校验（UserCache -> POST /api/users/batch）
+     * - 使用序列分配主键，按 batchSize 分批 flush，Hibernate 以 JDBC 批处理插入
+     * - flush 经过 ShiftRepository，违反排他约束时得到 DataIntegrityViolationException（而不是 JPA 原始异常）
+     */
+    public List<Shift> createShifts(BulkShiftRequest request) {
+        for (BulkShiftRequest.Item item : request.getShifts()) {
+            if (!item.getStartTime().isBefore(item.getStopTime())) {
+                throw new RuntimeException("开始时间必须早于结束时间，用户ID: " + item.getUserId()
+                        + ", 开始时间: " + item.getStartTime());
+            }
+            validateDuration(item.getStartTime(), item.getStopTime());
+        }
+
+        Set<Long> userIds = request.getShifts().stream()
+                .map(BulkShiftRequest.Item::getUserId)
+                .collect(Collectors.toSet());
+        Set<Long> missingUserIds = userCache.findMissing(userIds);
+        if (!missingUserIds.isEmpty()) {
+            throw new RuntimeException("用户不存在，ID: " + missingUserIds);
+        }
+
+        Company company = findCompany(request.getCompanyId());
+
+        List<Shift> created = new ArrayList<>(request.getShifts().size());
+        try {
+            for (BulkShiftRequest.Item item : request.getShifts()) {
+                Shift shift = new Shift();
+                shift.setUserId(item.getUserId());
+                shift.setCompany(company);
+                shift.setStartTime(item.getStartTime());
+                shift.setStopTime(item.getStopTime());
+                shift.setPublished(Boolean.TRUE.equals(item.getPublished()));
+                entityManager.persist(shift);
+                created.add(shift);
+
+                if (created.size() % batchSize == 0) {
+                    shiftRepository.flush();
+                    entityManager.clear();
+                }
+            }
+            shiftRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw writeFailure(e, "批量创建的排班与用户已有排班时间重叠，公司ID: " + request.getCompanyId());
+        }
+        entityManager.clear();
+
+        scheduleService.refresh(company.getId(), created.stream()
+                .map(shift -> CompanyWeekScheduleService.weekStartOf(shift.getStartTime()))
+                .collect(Collectors.toSet()));
+        return created;
+    }
+
+    /**
+     * 发布公司在 [from, to) 内开始的所有未发布排班，返回发布的排班数量
+     * 一条 UPDATE 完成，不逐条加载和保存实体；在同一事务内把受影响的周排班标记为待重新生成
+     */
+    public int publishShifts(Long companyId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("开始时间必须早于结束时间");
+        }
+        findCompany(companyId);
+
+        Set<LocalDate> weekStarts = shiftRepository.findUnpublishedStartTimes(companyId, from, to).stream()
+                .map(CompanyWeekScheduleService::weekStartOf)
+                .collect(Collectors.toSet());
+        if (weekStarts.isEmpty()) {
+            return 0;
+        }
+
+        int published = shiftRepository.publishByCompanyIdStartingBetween(companyId, from, to, LocalDateTime.now());
+        scheduleService.refresh(companyId, weekStarts);
+        return published;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ShiftView> getShiftById(Long id) {
+        return shiftRepository.findById(id).map(ShiftView::from);
+    }
+
+    /**
+     * 游标分页获取所有排班
+     */
     @Transactional(readOnly = true)
-    public Optional<Shift> getShiftById(Long id) {
-        return shiftRepository.findById(id);
+    public CursorPage<ShiftView> getAllShifts(String cursor, Integer limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(shiftRepository.findPageAfter(afterId, PageRequest.of(0, size + 1)),
+                size, ShiftView::getId);
     }
 
     @Transactional(readOnly = true)
-    public List<Shift> getAllShifts() {
-        return shiftRepository.findAll();
+    public CursorPage<ShiftView> getShiftsByUserId(Long userId, String cursor, Integer limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(shiftRepository.findByUserIdAfter(userId, afterId, PageRequest.of(0, size + 1)),
+                size, ShiftView::getId);
     }
 
     @Transactional(readOnly = true)
-    public List<Shift> getShiftsByUserId(Long userId) {
-        return shiftRepository.findByUserId(userId);
+    public CursorPage<ShiftView> getShiftsByCompanyId(Long companyId, String cursor, Integer limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(shiftRepository.findByCompanyIdAfter(companyId, afterId, PageRequest.of(0, size + 1)),
+                size, ShiftView::getId);
     }
 
     @Transactional(readOnly = true)
-    public List<Shift> getShiftsByCompanyId(Long companyId) {
-        return shiftRepository.findByCompanyId(companyId);
+    public CursorPage<ShiftView> getPublishedShifts(String cursor, Integer limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(shiftRepository.findPublishedAfter(afterId, PageRequest.of(0, size + 1)),
+                size, ShiftView::getId);
     }
 
     @Transactional(readOnly = true)
-    public List<Shift> getShiftsBetween(LocalDateTime startTime, LocalDateTime stopTime) {
+    public List<ShiftView> getShiftsBetween(LocalDateTime startTime, LocalDateTime stopTime) {
         return shiftRepository.findShiftsBetween(startTime, stopTime);
     }
 
+    /**
+     * 查找与时间窗口有重叠的排班（而不仅是完全包含在窗口内的排班）
+     */
+    @Transactional(readOnly = true)
+    public List<ShiftView> getShiftsOverlapping(LocalDateTime startTime, LocalDateTime stopTime) {
+        return toViews(shiftRepository.findShiftsOverlapping(startTime, stopTime));
+    }
+
+    /**
+     * 查找用户在时间窗口内的冲突排班（一次索引查询）
+     */
+    @Transactional(readOnly = true)
+    public List<ShiftView> getUserConflicts(Long userId, LocalDateTime startTime, LocalDateTime stopTime) {
+        return toViews(shiftRepository.findUserShiftsOverlapping(userId, startTime, stopTime));
+    }
+
     public Shift updateShift(Long id, Shift shiftDetails) {
         Shift shift = shiftRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("排班不存在，ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("排班不存在，ID: " + id));
+        Long oldCompanyId = shift.getCompany().getId();
+        LocalDate oldWeekStart = CompanyWeekScheduleService.weekStartOf(shift.getStartTime());
 
-        // 更新用户ID（如果提供）
-        if (shiftDetails.getUserId() != null) {
+        // 更新用户ID（如果提供），与创建时一样验证用户是否存在
+        if (shiftDetails.getUserId() != null && !shiftDetails.getUserId().equals(shift.getUserId())) {
+            if (!userCache.exists(shiftDetails.getUserId())) {
+                throw new RuntimeException("用户不存在，ID: " + shiftDetails.getUserId());
+            }
             shift.setUserId(shiftDetails.getUserId());
         }
 
         // 更新公司（如果提供）
-        if (shiftDetails.getCompany() != null && shiftDetails.getCompany().getId() != null) {
-            Company company = companyRepository.findById(shiftDetails.getCompany().getId())
-                    .orElseThrow(() -> new RuntimeException("公司不存在，ID: " + shiftDetails.getCompany().getId()));
-            shift.setCompany(company);
+        Long targetCompanyId = shiftDetails.getCompany() != null && shiftDetails.getCompany().getId() != null
+                ? shiftDetails.getCompany().getId()
+                : oldCompanyId;
+        if (!targetCompanyId.equals(oldCompanyId)) {
+            shift.setCompany(findCompany(targetCompanyId));
         }
 
         // 更新时间
@@ -118,20 +273,72 @@ public class ShiftService {
             shift.getStartTime().isEqual(shift.getStopTime())) {
             throw new RuntimeException("开始时间必须早于结束时间");
         }
+        validateDuration(shift.getStartTime(), shift.getStopTime());
 
         // 更新发布状态
         if (shiftDetails.getPublished() != null) {
             shift.setPublished(shiftDetails.getPublished());
         }
 
-        return shiftRepository.save(shift);
+        Shift saved;
+        try {
+            saved = shiftRepository.saveAndFlush(shift);
+        } catch (DataIntegrityViolationException e) {
+            throw writeFailure(e, "用户在该时间段已有排班，ID: " + shift.getUserId());
+        }
+
+        // 原来所在的周和现在所在的周都需要重新生成
+        LocalDate newWeekStart = CompanyWeekScheduleService.weekStartOf(saved.getStartTime());
+        if (targetCompanyId.equals(oldCompanyId)) {
+            scheduleService.refresh(oldCompanyId, List.of(oldWeekStart, newWeekStart));
+        } else {
+            scheduleService.refresh(oldCompanyId, List.of(oldWeekStart));
+            scheduleService.refresh(targetCompanyId, List.of(newWeekStart));
+        }
+        return saved;
     }
 
     public void deleteShift(Long id) {
-        if (!shiftRepository.existsById(id)) {
-            throw new RuntimeException("排班不存在，ID: " + id);
+        Shift shift = shiftRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("排班不存在，ID: " + id));
+        Long companyId = shift.getCompany().getId();
+
+        shiftRepository.delete(shift);
+        shiftRepository.flush();
+        scheduleService.refresh(companyId, List.of(CompanyWeekScheduleService.weekStartOf(shift.getStartTime())));
+    }
+
+    private static void validateDuration(LocalDateTime startTime, LocalDateTime stopTime) {
+        if (stopTime.isAfter(startTime.plus(Shift.MAX_DURATION))) {
+            throw new RuntimeException("排班时长不能超过 " + Shift.MAX_DURATION.toHours() + " 小时，开始时间: " + startTime);
         }
-        shiftRepository.deleteById(id);
     }
-}
 
+    /**
+     * 写入违反数据库约束时的异常：
+     * - 排班所在月份的分区已归档（shifts_default 上的 chk_shifts_default_not_archived）是请求本身无效（400）
+     * - 其它是与用户已有排班重叠（分区排他约束或跨分区重叠触发器，409）
+     */
+    private static RuntimeException writeFailure(DataIntegrityViolationException e, String conflictMessage) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && ARCHIVED_MONTH_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+            return new RuntimeException("排班所在月份已归档，不能再写入", e);
+        }
+        return new ShiftConflictException(conflictMessage, e);
+    }
+
+    private static List<ShiftView> toViews(List<Shift> shifts) {
+        return shifts.stream()
+                .map(ShiftView::from)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 加载公司（从二级缓存读取），不加锁：同一公司的排班写事务可以并发执行，
+     * 周排班读模型通过 upsert 标记，重新生成时校验 version
+     */
+    private Company findCompany(Long companyId) {
+        return companyRepository.findById(companyId)
+                .orElseThrow(() -> new RuntimeException("公司不存在，ID: " + companyId));
+    }
+}
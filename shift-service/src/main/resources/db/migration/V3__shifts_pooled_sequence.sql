@@ -0,0 +1,15 @@
+-- Flyway Migration Script: Switch shifts id generation to a pooled sequence
+-- Version: V3
+-- Description: shifts 主键改为序列分配（步长 50），使 Hibernate 可以批量插入
+--
+-- Shift 实体原来使用 GenerationType.IDENTITY，Hibernate 必须逐条 INSERT 才能拿到主键，
+-- 无法使用 JDBC 批处理。改为 SEQUENCE + pooled 优化器后，Hibernate 每次 nextval
+-- 预留 50 个ID，批量插入时一次往返即可提交一批语句。
+-- 列默认值仍为 nextval('shifts_id_seq')，直接 SQL 插入同样不会产生冲突。
+
+ALTER SEQUENCE shifts_id_seq INCREMENT BY 50;
+
+-- 跳过已使用的ID，保证 pooled 优化器分配的区间大于现有最大ID
+SELECT setval('shifts_id_seq', COALESCE((SELECT MAX(id) FROM shifts), 0) + 50);
+
+COMMENT ON SEQUENCE shifts_id_seq IS '排班ID序列（步长 50，对应 Hibernate pooled 优化器 allocationSize）';
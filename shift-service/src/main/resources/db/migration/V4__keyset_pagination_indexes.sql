@@ -0,0 +1,12 @@
+-- Flyway Migration Script: Indexes for keyset pagination
+-- Version: V4
+-- Description: 为游标分页（WHERE ... AND id > ? ORDER BY id LIMIT n）创建复合索引
+--
+-- 单列索引 idx_shifts_company_id / idx_shifts_user_id 中相同键值的条目不按 id 排序，
+-- 翻页时仍需排序整个公司/用户的数据；(company_id, id) 复合索引可直接按序扫描 n 条。
+
+CREATE INDEX IF NOT EXISTS idx_shifts_company_id_id ON shifts(company_id, id);
+CREATE INDEX IF NOT EXISTS idx_shifts_user_id_id ON shifts(user_id, id);
+
+-- 已发布排班的部分索引
+CREATE INDEX IF NOT EXISTS idx_shifts_published_id ON shifts(id) WHERE published = TRUE;
@@ -0,0 +1,5 @@
+-- Flyway Migration Script: Index for per-company time range queries
+-- Version: V5
+-- Description: 按公司 + 开始时间查询（导出、按周查看排班）的复合索引
+
+CREATE INDEX IF NOT EXISTS idx_shifts_company_start_time ON shifts(company_id, start_time);
@@ -0,0 +1,29 @@
+-- Flyway Migration Script: tsrange column, GiST index and no-overlap constraint
+-- Version: V6
+-- Description: 为排班增加时间区间列，支持索引化的重叠查询，并在数据库层禁止同一用户排班重叠
+--
+-- 注意：
+-- 1. 需要 PostgreSQL 12+（生成列）以及创建 btree_gist 扩展的权限
+-- 2. 如果已有数据中存在同一用户的重叠排班，添加排他约束会失败，需要先清理重叠数据：
+--      SELECT a.id, b.id FROM shifts a JOIN shifts b
+--        ON a.user_id = b.user_id AND a.id < b.id
+--       AND a.start_time < b.stop_time AND b.start_time < a.stop_time;
+
+-- btree_gist 让 GiST 索引可以同时包含普通标量列（user_id）和区间列
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- 排班时间区间 [start_time, stop_time)，由数据库根据起止时间自动生成
+ALTER TABLE shifts
+    ADD COLUMN IF NOT EXISTS time_range tsrange
+    GENERATED ALWAYS AS (tsrange(start_time, stop_time, '[)')) STORED;
+
+-- 时间区间重叠查询（&&）使用的 GiST 索引
+CREATE INDEX IF NOT EXISTS idx_shifts_time_range ON shifts USING gist (time_range);
+
+-- 排他约束：同一用户的排班时间区间不能重叠（约束自带 (user_id, time_range) GiST 索引，
+-- 同时用于单个用户的冲突检测查询）
+ALTER TABLE shifts
+    ADD CONSTRAINT excl_shifts_user_no_overlap
+    EXCLUDE USING gist (user_id WITH =, time_range WITH &&);
+
+COMMENT ON COLUMN shifts.time_range IS '排班时间区间 [start_time, stop_time)（生成列）';
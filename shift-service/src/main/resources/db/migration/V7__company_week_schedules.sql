@@ -0,0 +1,23 @@
+-- Flyway Migration Script: Company week schedule read model
+-- Version: V7
+-- Description: 公司周排班读模型，每个 公司 + 周 一行，保存预先生成的排班 JSON
+
+CREATE TABLE IF NOT EXISTS company_week_schedules (
+    company_id BIGINT NOT NULL,
+    week_start DATE NOT NULL,
+    shift_count INTEGER NOT NULL,
+    document TEXT NOT NULL,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_company_week_schedules PRIMARY KEY (company_id, week_start),
+    CONSTRAINT fk_company_week_schedules_company
+        FOREIGN KEY (company_id)
+        REFERENCES companies(id)
+        ON DELETE CASCADE
+);
+
+COMMENT ON TABLE company_week_schedules IS '公司周排班读模型（在排班写事务内重新生成）';
+COMMENT ON COLUMN company_week_schedules.week_start IS '周一日期';
+COMMENT ON COLUMN company_week_schedules.document IS '预先序列化的周排班 JSON';
+COMMENT ON COLUMN company_week_schedules.version IS '重新生成次数，用作 ETag';
@@ -0,0 +1,243 @@
+-- Flyway Migration Script: Range-partition shifts by start_time month
+-- Version: V8
+-- Description: 把 shifts 改为按 start_time 月份范围分区的表（已有数据库中的数据一并迁移）
+--
+-- 分区：
+--   shifts_pYYYYMM  每月一个分区，由 ShiftPartitionMaintenance 定时提前创建
+--   shifts_default  默认分区，存放还没有对应月份分区的排班（创建该月分区时移入新分区）
+--   旧分区按保留策略分离（DETACH）后改名为 shifts_archive_YYYYMM，或直接删除；
+--   之后默认分区带上 chk_shifts_default_not_archived，拒绝写入已归档月份的排班（否则会悄悄落入默认分区）
+--
+-- 排他约束（同一用户排班不能重叠）：
+--   分区表上的排他约束必须包含分区键，无法再在整张表上声明 excl_shifts_user_no_overlap。
+--   现在每个分区各自带一个排他约束；跨分区的重叠（开始于不同月份的排班之间）由
+--   check_shifts_cross_partition_overlap 触发器检查，按用户加事务级咨询锁，避免并发插入同时通过检查。
+--   单个排班时长上限为 1 天（chk_shifts_max_duration，与 Shift.MAX_DURATION 一致），所以：
+--   - 与排班重叠的其它排班只可能开始于 (start_time - 1 天, stop_time)，检查只涉及 1～2 个分区
+--   - 跨分区重叠只可能发生在跨月排班与下月第一天开始的排班之间，其它排班不需要加锁和检查
+--
+-- 注意：
+-- 1. 需要 PostgreSQL 13+（分区表上的 BEFORE 行触发器）
+-- 2. 如果已有数据中存在时长超过 1 天的排班，复制数据时会违反 chk_shifts_max_duration，需要先处理：
+--      SELECT id, start_time, stop_time FROM shifts WHERE stop_time > start_time + INTERVAL '1 day';
+-- 3. 迁移在一个事务内复制全部数据并重建索引，期间 shifts 表被锁定，数据量大时应安排在停机窗口执行
+
+-- ---------------------------------------------------------------------------
+-- 分区维护函数
+-- ---------------------------------------------------------------------------
+
+-- 创建某个月的分区（已存在时返回 FALSE）
+-- 默认分区中已有属于该月的排班时，先移出，创建分区后再插回（插入时落入新分区）
+CREATE OR REPLACE FUNCTION create_shifts_partition(p_month DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    v_from DATE := date_trunc('month', p_month)::date;
+    v_to DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name TEXT := 'shifts_p' || to_char(date_trunc('month', p_month), 'YYYYMM');
+    v_moved INTEGER;
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    CREATE TEMP TABLE shifts_partition_moving ON COMMIT DROP AS
+        SELECT id, user_id, company_id, start_time, stop_time, published, published_at, created_at, updated_at
+        FROM shifts_default
+        WHERE start_time >= v_from AND start_time < v_to;
+    GET DIAGNOSTICS v_moved = ROW_COUNT;
+    IF v_moved > 0 THEN
+        DELETE FROM shifts_default WHERE start_time >= v_from AND start_time < v_to;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF shifts FOR VALUES FROM (%L) TO (%L)', v_name, v_from, v_to);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist (user_id WITH =, time_range WITH &&)',
+                   v_name, 'excl_' || v_name || '_user_no_overlap');
+
+    IF v_moved > 0 THEN
+        INSERT INTO shifts (id, user_id, company_id, start_time, stop_time, published, published_at, created_at, updated_at)
+        SELECT id, user_id, company_id, start_time, stop_time, published, published_at, created_at, updated_at
+        FROM shifts_partition_moving;
+    END IF;
+    DROP TABLE shifts_partition_moving;
+    RETURN TRUE;
+END;
+$$ language 'plpgsql';
+
+-- 分离结束时间不晚于 p_before 的月分区，返回处理的分区数
+-- p_drop = FALSE 时分离后改名为 shifts_archive_YYYYMM 保留（可导出后手工删除），TRUE 时直接删除
+-- 分离后这些月份没有分区，新写入的排班会落入默认分区，所以在默认分区上加 CHECK 约束拒绝写入
+-- （NOT VALID：不检查默认分区中已有的旧数据）
+CREATE OR REPLACE FUNCTION archive_shifts_partitions(p_before DATE, p_drop BOOLEAN)
+RETURNS INTEGER AS $$
+DECLARE
+    r RECORD;
+    v_count INTEGER := 0;
+    v_month_end DATE;
+    v_archived_before DATE;
+BEGIN
+    FOR r IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'shifts'::regclass
+          AND c.relname ~ '^shifts_p[0-9]{6}$'
+        ORDER BY c.relname
+    LOOP
+        v_month_end := (to_date(substr(r.relname, 9), 'YYYYMM') + INTERVAL '1 month')::date;
+        IF v_month_end <= p_before THEN
+            EXECUTE format('ALTER TABLE shifts DETACH PARTITION %I', r.relname);
+            IF p_drop THEN
+                EXECUTE format('DROP TABLE %I', r.relname);
+            ELSE
+                EXECUTE format('ALTER TABLE %I RENAME TO %I', r.relname, 'shifts_archive_' || substr(r.relname, 9));
+            END IF;
+            v_count := v_count + 1;
+            v_archived_before := GREATEST(v_archived_before, v_month_end);
+        END IF;
+    END LOOP;
+
+    IF v_archived_before IS NOT NULL THEN
+        ALTER TABLE shifts_default DROP CONSTRAINT IF EXISTS chk_shifts_default_not_archived;
+        EXECUTE format('ALTER TABLE shifts_default ADD CONSTRAINT chk_shifts_default_not_archived '
+                       'CHECK (start_time >= %L) NOT VALID', v_archived_before);
+    END IF;
+    RETURN v_count;
+END;
+$$ language 'plpgsql';
+
+-- 跨分区重叠检查（同一分区内的重叠由分区上的排他约束保证）
+-- 排班时长不超过 1 天：开始于月初 1 天之后、且不跨月的排班，可能与它重叠的排班都开始于同一个月、在同一个分区，
+-- 直接返回；其它排班只查询 start_time 在 (NEW.start_time - 1 天, NEW.stop_time) 内的 1～2 个分区，
+-- 每个分区使用排他约束自带的 (user_id, time_range) GiST 索引
+CREATE OR REPLACE FUNCTION check_shifts_cross_partition_overlap()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_month_start TIMESTAMP := date_trunc('month', NEW.start_time);
+BEGIN
+    IF NEW.start_time >= v_month_start + INTERVAL '1 day'
+       AND NEW.stop_time <= v_month_start + INTERVAL '1 month' THEN
+        RETURN NEW;
+    END IF;
+
+    -- 同一用户的检查串行执行：后加锁的事务在锁释放（前一个事务提交）后才查询，能看到前一个事务插入的排班
+    PERFORM pg_advisory_xact_lock(hashtextextended('shifts.user_id:' || NEW.user_id, 0));
+    IF EXISTS (
+        SELECT 1 FROM shifts s
+        WHERE s.user_id = NEW.user_id
+          AND s.id <> NEW.id
+          AND s.start_time > NEW.start_time - INTERVAL '1 day'
+          AND s.start_time < NEW.stop_time
+          AND s.time_range && tsrange(NEW.start_time, NEW.stop_time, '[)')
+    ) THEN
+        RAISE EXCEPTION '用户 % 在 [%, %) 已有排班', NEW.user_id, NEW.start_time, NEW.stop_time
+            USING ERRCODE = 'exclusion_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+-- ---------------------------------------------------------------------------
+-- 迁移：旧表改名 -> 创建分区表 -> 复制数据 -> 删除旧表 -> 建索引和触发器
+-- ---------------------------------------------------------------------------
+
+ALTER TABLE shifts RENAME TO shifts_legacy;
+-- 序列属于旧表的 id 列，删除旧表前解除关联，避免序列被一起删除
+ALTER SEQUENCE shifts_id_seq OWNED BY NONE;
+
+CREATE TABLE shifts (
+    id BIGINT NOT NULL DEFAULT nextval('shifts_id_seq'),
+    user_id BIGINT NOT NULL,
+    company_id BIGINT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    stop_time TIMESTAMP NOT NULL,
+    published BOOLEAN NOT NULL DEFAULT FALSE,
+    published_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    time_range tsrange GENERATED ALWAYS AS (tsrange(start_time, stop_time, '[)')) STORED,
+
+    CONSTRAINT fk_shifts_company
+        FOREIGN KEY (company_id)
+        REFERENCES companies(id)
+        ON DELETE CASCADE,
+    CONSTRAINT chk_shifts_time_order CHECK (start_time < stop_time),
+    CONSTRAINT chk_shifts_max_duration CHECK (stop_time <= start_time + INTERVAL '1 day')
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE shifts_default PARTITION OF shifts DEFAULT;
+ALTER TABLE shifts_default
+    ADD CONSTRAINT excl_shifts_default_user_no_overlap
+    EXCLUDE USING gist (user_id WITH =, time_range WITH &&);
+
+-- 为已有数据最早的月份到未来 3 个月创建分区，更远的排班先进入默认分区
+DO $$
+DECLARE
+    v_month DATE := LEAST(
+        COALESCE((SELECT date_trunc('month', MIN(start_time))::date FROM shifts_legacy),
+                 date_trunc('month', CURRENT_DATE)::date),
+        date_trunc('month', CURRENT_DATE)::date);
+    v_last DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE v_month <= v_last LOOP
+        PERFORM create_shifts_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO shifts (id, user_id, company_id, start_time, stop_time, published, published_at, created_at, updated_at)
+SELECT id, user_id, company_id, start_time, stop_time, published, published_at, created_at, updated_at
+FROM shifts_legacy;
+
+-- 旧表的索引与新表同名，先删除旧表再创建索引
+DROP TABLE shifts_legacy;
+ALTER SEQUENCE shifts_id_seq OWNED BY shifts.id;
+
+-- 主键必须包含分区键；id 仍由序列分配，全局唯一
+ALTER TABLE shifts ADD CONSTRAINT shifts_pkey PRIMARY KEY (id, start_time);
+
+-- 在分区表上创建的索引会自动在每个分区（包括以后创建的分区）上创建
+CREATE INDEX IF NOT EXISTS idx_shifts_user_id ON shifts(user_id);
+CREATE INDEX IF NOT EXISTS idx_shifts_company_id ON shifts(company_id);
+CREATE INDEX IF NOT EXISTS idx_shifts_start_time ON shifts(start_time);
+CREATE INDEX IF NOT EXISTS idx_shifts_stop_time ON shifts(stop_time);
+CREATE INDEX IF NOT EXISTS idx_shifts_published ON shifts(published);
+CREATE INDEX IF NOT EXISTS idx_shifts_company_published ON shifts(company_id, published);
+CREATE INDEX IF NOT EXISTS idx_shifts_user_time ON shifts(user_id, start_time, stop_time);
+CREATE INDEX IF NOT EXISTS idx_shifts_company_id_id ON shifts(company_id, id);
+CREATE INDEX IF NOT EXISTS idx_shifts_user_id_id ON shifts(user_id, id);
+CREATE INDEX IF NOT EXISTS idx_shifts_published_id ON shifts(id) WHERE published = TRUE;
+CREATE INDEX IF NOT EXISTS idx_shifts_company_start_time ON shifts(company_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_shifts_time_range ON shifts USING gist (time_range);
+
+-- 触发器（分区表上的行触发器会自动应用到所有分区）
+CREATE TRIGGER update_shifts_updated_at
+    BEFORE UPDATE ON shifts
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER set_shifts_published_at
+    BEFORE UPDATE ON shifts
+    FOR EACH ROW
+    EXECUTE FUNCTION set_published_at();
+
+CREATE TRIGGER check_shifts_cross_partition_overlap
+    BEFORE INSERT OR UPDATE OF user_id, start_time, stop_time ON shifts
+    FOR EACH ROW
+    EXECUTE FUNCTION check_shifts_cross_partition_overlap();
+
+-- 添加注释
+COMMENT ON TABLE shifts IS '排班表（按 start_time 月份范围分区）';
+COMMENT ON COLUMN shifts.id IS '排班ID';
+COMMENT ON COLUMN shifts.user_id IS '用户ID（跨服务引用）';
+COMMENT ON COLUMN shifts.company_id IS '公司ID（外键关联到 companies 表）';
+COMMENT ON COLUMN shifts.start_time IS '开始时间（分区键）';
+COMMENT ON COLUMN shifts.stop_time IS '结束时间';
+COMMENT ON COLUMN shifts.published IS '是否已发布';
+COMMENT ON COLUMN shifts.published_at IS '发布时间';
+COMMENT ON COLUMN shifts.created_at IS '创建时间';
+COMMENT ON COLUMN shifts.updated_at IS '更新时间';
+COMMENT ON COLUMN shifts.time_range IS '排班时间区间 [start_time, stop_time)（生成列）';
+COMMENT ON TABLE shifts_default IS '排班默认分区（还没有对应月份分区的排班；已归档的月份不能写入）';
+COMMENT ON FUNCTION create_shifts_partition(DATE) IS '创建某个月的排班分区';
+COMMENT ON FUNCTION archive_shifts_partitions(DATE, BOOLEAN) IS '分离（归档或删除）早于指定日期的排班分区';
+COMMENT ON FUNCTION check_shifts_cross_partition_overlap() IS '检查跨分区的同一用户排班重叠';
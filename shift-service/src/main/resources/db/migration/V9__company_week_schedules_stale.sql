@@ -0,0 +1,16 @@
+-- Flyway Migration Script: Coalesced week schedule rebuilds
+-- Version: V9
+-- Description: 排班写事务只把受影响的周标记为 stale，由后台任务合并后重新生成 document
+
+ALTER TABLE company_week_schedules ADD COLUMN IF NOT EXISTS stale BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE company_week_schedules ALTER COLUMN document DROP NOT NULL;
+
+-- 后台任务按标记时间查找待重新生成的周，只索引 stale 的行
+CREATE INDEX IF NOT EXISTS idx_company_week_schedules_stale
+    ON company_week_schedules (updated_at)
+    WHERE stale;
+
+COMMENT ON TABLE company_week_schedules IS '公司周排班读模型（排班写事务内标记为待更新，后台合并重新生成）';
+COMMENT ON COLUMN company_week_schedules.document IS '预先序列化的周排班 JSON，第一次生成之前为 NULL';
+COMMENT ON COLUMN company_week_schedules.version IS '排班写入次数，用作 ETag';
+COMMENT ON COLUMN company_week_schedules.stale IS 'document 已过期，等待重新生成';
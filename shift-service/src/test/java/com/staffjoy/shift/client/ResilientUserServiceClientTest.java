@@ -0,0 +1,159 @@
+package com.staffjoy.shift.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ResilientUserServiceClient 对慢/故障 user-service 的行为
+ * Feign 通过 SimpleDiscoveryClient 指向 StubUserService，超时沿用 application.yml（read-timeout 2 秒），
+ * 熔断器和舱壁使用较小的窗口以便触发
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.flyway.enabled=false",
+        "resilience4j.circuitbreaker.instances.user-service.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.user-service.minimum-number-of-calls=4",
+        "resilience4j.circuitbreaker.instances.user-service.wait-duration-in-open-state=60s",
+        "resilience4j.bulkhead.instances.user-service.max-concurrent-calls=1",
+        "resilience4j.bulkhead.instances.user-service.max-wait-duration=0"
+})
+@AutoConfigureMockMvc
+class ResilientUserServiceClientTest {
+
+    private static StubUserService stub;
+
+    @Autowired
+    private ResilientUserServiceClient client;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void userService(DynamicPropertyRegistry registry) throws IOException {
+        stub = new StubUserService();
+        registry.add("spring.cloud.discovery.client.simple.instances.user-service[0].uri", stub::uri);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        stub.reset();
+        circuitBreakerRegistry.circuitBreaker(ResilientUserServiceClient.INSTANCE_NAME).reset();
+    }
+
+    @Test
+    void readTimeoutFailsFastWithUnavailable() {
+        stub.slow(5000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.getUserById(1001L))
+                .isInstanceOf(UserServiceUnavailableException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(4000);
+        assertThat(meterRegistry.find("feign.client.requests").tag("outcome", "io_error").timer()).isNotNull();
+    }
+
+    @Test
+    void circuitOpensAfterFailuresAndStopsCallingUserService() {
+        stub.fail();
+        for (long id = 2001; id <= 2004; id++) {
+            long userId = id;
+            assertThatThrownBy(() -> client.getUserById(userId))
+                    .isInstanceOf(UserServiceUnavailableException.class);
+        }
+        assertThat(stub.requests()).isEqualTo(4);
+        assertThat(circuitBreakerRegistry.circuitBreaker(ResilientUserServiceClient.INSTANCE_NAME).getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> client.getUserById(2005L))
+                .isInstanceOf(UserServiceUnavailableException.class)
+                .hasCauseInstanceOf(CallNotPermittedException.class);
+        assertThat(stub.requests()).isEqualTo(4);
+    }
+
+    @Test
+    void bulkheadFullReturns503() throws Exception {
+        stub.block();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<UserServiceClient.UserResponse>> inFlight = executor.submit(() -> client.getUserById(3001L));
+            stub.awaitRequests(1);
+
+            mockMvc.perform(post("/api/shifts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"userId\":3002,\"company\":{\"id\":1},"
+                                    + "\"startTime\":\"2024-01-15T09:00:00\",\"stopTime\":\"2024-01-15T17:00:00\"}"))
+                    .andExpect(status().isServiceUnavailable());
+
+            stub.release();
+            assertThat(inFlight.get(5, TimeUnit.SECONDS)).isPresent();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(stub.requests()).isEqualTo(1);
+        assertThat(meterRegistry.find("feign.client.requests").tag("outcome", "bulkhead_full").timer()).isNotNull();
+    }
+
+    @Test
+    void servesLastKnownUserWhileUnavailable() {
+        assertThat(client.getUserById(4001L)).map(UserServiceClient.UserResponse::getUsername).contains("user4001");
+
+        stub.fail();
+        assertThat(client.getUserById(4001L)).map(UserServiceClient.UserResponse::getUsername).contains("user4001");
+        assertThatThrownBy(() -> client.getUserById(4002L))
+                .isInstanceOf(UserServiceUnavailableException.class);
+        assertThat(meterRegistry.find("user.service.fallback").tag("outcome", "served").counter()).isNotNull();
+    }
+
+    @Test
+    void evictAllDropsLastKnownUsers() {
+        assertThat(userCache.getUser(5001L)).isPresent();
+        assertThat(userCache.getUser(5002L)).isPresent();
+
+        userCache.evictAll();
+        stub.fail();
+
+        // 清空缓存后降级也不能再返回清空前的用户
+        assertThatThrownBy(() -> userCache.getUser(5001L))
+                .isInstanceOf(UserServiceUnavailableException.class);
+        assertThatThrownBy(() -> client.getUserById(5002L))
+                .isInstanceOf(UserServiceUnavailableException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.staffjoy.shift.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 测试用的 user-service 替身（JDK HttpServer）
+ * 只实现 GET /api/users/{id}，可以切换为正常、返回 500、慢响应或挂起直到 release
+ */
+class StubUserService {
+
+    enum Mode { OK, FAIL, SLOW, BLOCK }
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Mode mode = Mode.OK;
+    private volatile long slowMillis;
+    private volatile CountDownLatch blocked = new CountDownLatch(0);
+
+    StubUserService() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/users/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    String uri() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void reset() {
+        blocked.countDown();
+        mode = Mode.OK;
+        requests.set(0);
+    }
+
+    void fail() {
+        mode = Mode.FAIL;
+    }
+
+    void slow(long millis) {
+        slowMillis = millis;
+        mode = Mode.SLOW;
+    }
+
+    void block() {
+        blocked = new CountDownLatch(1);
+        mode = Mode.BLOCK;
+    }
+
+    void release() {
+        blocked.countDown();
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    /**
+     * 等待收到指定数量的请求（BLOCK 模式下用来确认调用已经占住舱壁）
+     */
+    void awaitRequests(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests.get() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("等待 user-service 请求超时，已收到 " + requests.get() + " 个");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    void stop() {
+        blocked.countDown();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            switch (mode) {
+                case FAIL -> {
+                    respond(exchange, 500, "{\"error\":\"stub failure\"}");
+                    return;
+                }
+                case SLOW -> Thread.sleep(slowMillis);
+                case BLOCK -> blocked.await(5, TimeUnit.SECONDS);
+                default -> {
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String path = exchange.getRequestURI().getPath();
+        String id = path.substring(path.lastIndexOf('/') + 1);
+        respond(exchange, 200, "{\"id\":" + id + ",\"username\":\"user" + id + "\",\"email\":\"user" + id
+                + "@example.com\",\"name\":\"User " + id + "\"}");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (IOException e) {
+            // 客户端已超时断开
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.staffjoy.shift.repository;
+
+import com.staffjoy.shift.config.HibernateCacheConfig;
+import com.staffjoy.shift.dto.CompanyView;
+import com.staffjoy.shift.dto.ShiftView;
+import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.model.Shift;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列表查询的 SQL 语句数（Hibernate Statistics，generate_statistics 在 application.yml 中开启）
+ *
+ * DTO 投影查询无论返回多少行都只执行一条语句；作为对照，加载实体后访问懒加载关联会逐行查询（N+1）。
+ * 每次测量前清空持久化上下文和二级缓存，懒加载只能访问数据库。
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "eureka.client.enabled=false"
+})
+@Import(HibernateCacheConfig.class)
+class ReadQueryStatementCountTest {
+
+    private static final int COMPANIES = 3;
+    private static final int SHIFTS_PER_COMPANY = 4;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 10, 12, 9, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private Statistics statistics;
+    private Long firstCompanyId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int c = 0; c < COMPANIES; c++) {
+            Company company = new Company();
+            company.setName("statement-count-" + c);
+            entityManager.persist(company);
+            if (firstCompanyId == null) {
+                firstCompanyId = company.getId();
+            }
+            for (int s = 0; s < SHIFTS_PER_COMPANY; s++) {
+                Shift shift = new Shift();
+                shift.setUserId(100L + s);
+                shift.setCompany(company);
+                shift.setStartTime(MONDAY.plusDays(s));
+                shift.setStopTime(MONDAY.plusDays(s).plusHours(8));
+                shift.setPublished(true);
+                entityManager.persist(shift);
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void shiftListQueriesRunOneStatement() {
+        int total = COMPANIES * SHIFTS_PER_COMPANY;
+        PageRequest page = PageRequest.of(0, 50);
+
+        assertSingleStatement(() -> shiftRepository.findPageAfter(0L, page), total);
+        assertSingleStatement(() -> shiftRepository.findPublishedAfter(0L, page), total);
+        assertSingleStatement(() -> shiftRepository.findByUserIdAfter(100L, 0L, page), COMPANIES);
+        assertSingleStatement(() -> shiftRepository.findByCompanyIdAfter(firstCompanyId, 0L, page),
+                SHIFTS_PER_COMPANY);
+        assertSingleStatement(() -> shiftRepository.findShiftsBetween(MONDAY.minusDays(1), MONDAY.plusWeeks(1)),
+                total);
+        assertSingleStatement(() -> shiftRepository.findViewsByCompanyIdStartingBetween(firstCompanyId,
+                MONDAY.minusDays(1), MONDAY.plusWeeks(1)), SHIFTS_PER_COMPANY);
+    }
+
+    @Test
+    void companyListQueryRunsOneStatement() {
+        assertSingleStatement(() -> companyRepository.findAllViews(), COMPANIES);
+    }
+
+    @Test
+    void entityListWithLazyAssociationsRunsOneStatementPerRow() {
+        // 对照：序列化实体时会访问 company / shifts，每个不同的关联对象一条语句
+        assertThat(countStatements(() -> {
+            List<Shift> shifts = shiftRepository.findAll();
+            shifts.forEach(shift -> shift.getCompany().getName());
+            return shifts;
+        })).isEqualTo(1 + COMPANIES);
+        assertThat(countStatements(() -> {
+            List<Company> companies = companyRepository.findAll();
+            companies.forEach(company -> company.getShifts().size());
+            return companies;
+        })).isEqualTo(1 + COMPANIES);
+    }
+
+    private void assertSingleStatement(Supplier<List<?>> query, int expectedRows) {
+        List<?> rows = query.get();
+        assertThat(rows).hasSize(expectedRows);
+        assertThat(countStatements(query)).isEqualTo(1);
+    }
+
+    /**
+     * 执行查询并读取结果的所有字段（与 JSON 序列化时一样），返回执行的 SQL 语句数
+     */
+    private long countStatements(Supplier<List<?>> query) {
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        for (Object row : query.get()) {
+            if (row instanceof ShiftView view) {
+                assertThat(view.getCompanyId()).isNotNull();
+            } else if (row instanceof CompanyView view) {
+                assertThat(view.getName()).isNotNull();
+            }
+        }
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,84 @@
+package com.staffjoy.shift.repository;
+
+import com.staffjoy.shift.config.HibernateCacheConfig;
+import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.model.Shift;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 重叠查询在 H2 上走可移植的比较条件（PostgreSQL 上走 tsrange），结果按 [start, stop) 半开区间判断
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "eureka.client.enabled=false"
+})
+@Import(HibernateCacheConfig.class)
+class ShiftOverlapQueryTest {
+
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2026, 11, 3, 8, 0);
+    private static final LocalDateTime WINDOW_STOP = WINDOW_START.plusHours(4);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        company = new Company();
+        company.setName("overlap-query");
+        entityManager.persist(company);
+
+        // 前一天开始、跨过窗口开始时间的长排班
+        persist(1L, WINDOW_START.minusHours(20), WINDOW_START.plusHours(1));
+        // 完全在窗口内
+        persist(2L, WINDOW_START.plusHours(1), WINDOW_START.plusHours(2));
+        // 跨过窗口结束时间
+        persist(1L, WINDOW_STOP.minusMinutes(30), WINDOW_STOP.plusHours(6));
+        // 恰好在窗口开始时结束 / 在窗口结束时开始：半开区间，不算重叠
+        persist(3L, WINDOW_START.minusHours(8), WINDOW_START);
+        persist(3L, WINDOW_STOP, WINDOW_STOP.plusHours(8));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findsShiftsOverlappingWindow() {
+        assertThat(shiftRepository.findShiftsOverlapping(WINDOW_START, WINDOW_STOP))
+                .extracting(Shift::getUserId, Shift::getStartTime)
+                .containsExactly(
+                        tuple(1L, WINDOW_START.minusHours(20)),
+                        tuple(2L, WINDOW_START.plusHours(1)),
+                        tuple(1L, WINDOW_STOP.minusMinutes(30)));
+    }
+
+    @Test
+    void findsUserConflicts() {
+        assertThat(shiftRepository.findUserShiftsOverlapping(1L, WINDOW_START, WINDOW_STOP))
+                .extracting(Shift::getStartTime)
+                .containsExactly(WINDOW_START.minusHours(20), WINDOW_STOP.minusMinutes(30));
+        assertThat(shiftRepository.findUserShiftsOverlapping(3L, WINDOW_START, WINDOW_STOP)).isEmpty();
+    }
+
+    private void persist(Long userId, LocalDateTime start, LocalDateTime stop) {
+        Shift shift = new Shift();
+        shift.setUserId(userId);
+        shift.setCompany(company);
+        shift.setStartTime(start);
+        shift.setStopTime(stop);
+        entityManager.persist(shift);
+    }
+}
@@ -0,0 +1,121 @@
+package com.staffjoy.shift.service;
+
+import com.staffjoy.shift.client.UserCache;
+import com.staffjoy.shift.dto.BulkShiftRequest;
+import com.staffjoy.shift.model.Company;
+import com.staffjoy.shift.model.CompanyWeekSchedule;
+import com.staffjoy.shift.model.Shift;
+import com.staffjoy.shift.repository.CompanyRepository;
+import com.staffjoy.shift.repository.CompanyWeekScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * ShiftService 的写入校验和周排班读模型标记（H2，用户校验由 UserCache 桩代替）
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.flyway.enabled=false",
+        "staffjoy.week-schedule.rebuild-interval=PT1H"
+})
+class ShiftServiceTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 11, 2, 9, 0);
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CompanyWeekScheduleRepository scheduleRepository;
+
+    @MockBean
+    private UserCache userCache;
+
+    private Company company;
+
+    @BeforeEach
+    void setUp(TestInfo test) {
+        when(userCache.exists(anyLong())).thenReturn(true);
+        when(userCache.findMissing(any())).thenReturn(Set.of());
+        Company newCompany = new Company();
+        newCompany.setName("shift-service-test-" + test.getDisplayName());
+        company = companyRepository.save(newCompany);
+    }
+
+    @Test
+    void rejectsShiftsLongerThanMaxDuration() {
+        LocalDateTime tooLate = MONDAY.plus(Shift.MAX_DURATION).plusMinutes(1);
+
+        assertThatThrownBy(() -> shiftService.createShift(shift(701L, MONDAY, tooLate)))
+                .hasMessageContaining("排班时长不能超过 24 小时");
+        assertThatThrownBy(() -> shiftService.createShifts(new BulkShiftRequest(company.getId(),
+                List.of(new BulkShiftRequest.Item(701L, MONDAY, tooLate, false)))))
+                .hasMessageContaining("排班时长不能超过 24 小时");
+
+        Shift created = shiftService.createShift(shift(701L, MONDAY, MONDAY.plus(Shift.MAX_DURATION)));
+        Shift update = new Shift();
+        update.setStopTime(tooLate);
+        assertThatThrownBy(() -> shiftService.updateShift(created.getId(), update))
+                .hasMessageContaining("排班时长不能超过 24 小时");
+    }
+
+    @Test
+    void concurrentWritesToTheSameWeekMarkItStaleOnce() throws Exception {
+        int writers = 8;
+        LocalDateTime weekStart = MONDAY.plusWeeks(2);
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Shift>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                Shift shift = shift(800L + i, weekStart.plusHours(i), weekStart.plusHours(i + 8));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return shiftService.createShift(shift);
+                }));
+            }
+            start.countDown();
+            for (Future<Shift> future : futures) {
+                assertThat(future.get(30, TimeUnit.SECONDS).getId()).isNotNull();
+            }
+        }
+
+        // 同一公司同一周的写事务不再串行，读模型只有一行，每次写入 version 加 1
+        CompanyWeekSchedule schedule = scheduleRepository.findById(new CompanyWeekSchedule.Key(company.getId(),
+                CompanyWeekScheduleService.weekStartOf(weekStart))).orElseThrow();
+        assertThat(schedule.getStale()).isTrue();
+        assertThat(schedule.getVersion()).isEqualTo(writers);
+        assertThat(schedule.getDocument()).isNull();
+    }
+
+    private Shift shift(Long userId, LocalDateTime start, LocalDateTime stop) {
+        Shift shift = new Shift();
+        shift.setUserId(userId);
+        shift.setCompany(company);
+        shift.setStartTime(start);
+        shift.setStopTime(stop);
+        return shift;
+    }
+}
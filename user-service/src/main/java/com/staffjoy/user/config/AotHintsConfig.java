@@ -0,0 +1,16 @@
+package com.staffjoy.user.config;
+
+import com.staffjoy.common.dto.UserChangeBatch;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * AOT / GraalVM native image 的运行时提示
+ *
+ * 控制器的请求体和响应体由 Spring 自动注册，这里只补充在控制器之外序列化的类型
+ * （UserOutboxRelay 通过 RestClient 发送的用户变更批次）
+ */
+@Configuration
+@RegisterReflectionForBinding(UserChangeBatch.class)
+public class AotHintsConfig {
+}
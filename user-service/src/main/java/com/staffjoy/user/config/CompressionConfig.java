@@ -0,0 +1,27 @@
+package com.staffjoy.user.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * HTTP 压缩配置类
+ * 响应压缩由 server.compression 配置；请求体解压过滤器只在 staffjoy.request-compression.enabled=true 时注册
+ */
+@Configuration
+@EnableConfigurationProperties(RequestCompressionProperties.class)
+public class CompressionConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "staffjoy.request-compression", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<GzipRequestFilter> gzipRequestFilter(RequestCompressionProperties properties) {
+        FilterRegistrationBean<GzipRequestFilter> registration =
+                new FilterRegistrationBean<>(new GzipRequestFilter(properties.getMaxInflatedSize()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,189 @@
+package com.staffjoy.user.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * 请求体 gzip 解压过滤器
+ * Tomcat 只压缩响应，不会解压请求；Feign 开启请求压缩（Content-Encoding: gzip）时在这里解压
+ *
+ * 进入后续处理之前一次性解压到内存：
+ * - 解压后超过 maxInflatedSize 时返回 413，不会把压缩炸弹完整展开
+ * - 不是有效的 gzip 数据（头部错误、数据被截断）时返回 400
+ */
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final long maxInflatedBytes;
+
+    public GzipRequestFilter(DataSize maxInflatedSize) {
+        this.maxInflatedBytes = maxInflatedSize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return encoding == null || !encoding.trim().equalsIgnoreCase("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        byte[] body;
+        try {
+            body = inflate(request.getInputStream());
+        } catch (InflatedSizeExceededException e) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "解压后的请求体超过 " + maxInflatedBytes + " 字节");
+            return;
+        } catch (ZipException | EOFException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "请求体不是有效的 gzip 数据");
+            return;
+        }
+        filterChain.doFilter(new GzipRequestWrapper(request, body), response);
+    }
+
+    private byte[] inflate(InputStream compressed) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(compressed, BUFFER_SIZE)) {
+            ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = gzip.read(buffer)) != -1) {
+                if (inflated.size() + n > maxInflatedBytes) {
+                    throw new InflatedSizeExceededException();
+                }
+                inflated.write(buffer, 0, n);
+            }
+            return inflated.toByteArray();
+        }
+    }
+
+    private static class InflatedSizeExceededException extends IOException {
+    }
+
+    /**
+     * 解压后的请求：去掉 Content-Encoding，Content-Length 为解压后的长度
+     */
+    private static class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        GzipRequestWrapper(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new InflatedInputStream(body);
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return null;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return String.valueOf(body.length);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.enumeration(Collections.singletonList(String.valueOf(body.length)));
+            }
+            return super.getHeaders(name);
+        }
+    }
+
+    /**
+     * 已解压的请求体，数据全部在内存中，异步读取时立即可读
+     */
+    private static class InflatedInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream delegate;
+
+        InflatedInputStream(byte[] body) {
+            this.delegate = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return delegate.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
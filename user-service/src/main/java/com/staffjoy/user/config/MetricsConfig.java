@@ -0,0 +1,20 @@
+package com.staffjoy.user.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标配置类
+ * 启用 @Timed 注解：服务层方法耗时记录为 staffjoy.service（按 class / method / exception 打标签），
+ * 百分位和直方图在 management.metrics.distribution 中配置
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
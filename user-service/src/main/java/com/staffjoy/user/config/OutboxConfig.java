@@ -0,0 +1,35 @@
+package com.staffjoy.user.config;
+
+import com.staffjoy.common.internal.InternalApiProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestClient;
+
+/**
+ * 用户变更发件箱配置类
+ * 开启定时任务（UserOutboxRelay 轮询），并提供按 Eureka 服务名负载均衡的 RestClient
+ * 订阅方的接收接口位于 /api/internal/**，请求头携带服务间共享令牌（staffjoy.internal-api.token）
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @LoadBalanced
+    public RestClient.Builder outboxRestClientBuilder(OutboxProperties properties,
+                                                      InternalApiProperties internalApiProperties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        RestClient.Builder builder = RestClient.builder().requestFactory(requestFactory);
+        if (internalApiProperties.getToken() != null) {
+            builder.defaultHeader(InternalApiProperties.TOKEN_HEADER, internalApiProperties.getToken());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,62 @@
+package com.staffjoy.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户变更发件箱配置
+ * 对应配置前缀：staffjoy.outbox
+ *
+ * 用户创建/修改/删除时，在同一事务内为每个订阅方写入一条发件箱事件，
+ * 由 UserOutboxRelay 定时按顺序批量投递（POST 到订阅方的 url），失败时按指数退避重试。
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 两次轮询之间的间隔
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * 单次投递的最大事件数
+     */
+    private int batchSize = 100;
+
+    /**
+     * 第一次失败后的重试间隔，之后每次翻倍
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * 重试间隔上限
+     */
+    private Duration maxBackoff = Duration.ofMinutes(1);
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    private List<Subscriber> subscribers = new ArrayList<>();
+
+    @Data
+    public static class Subscriber {
+
+        /**
+         * 订阅方名称（写入 user_outbox.subscriber）
+         */
+        private String name;
+
+        /**
+         * 接收事件的地址，支持 Eureka 服务名（例如 http://shift-service/...）
+         */
+        private String url;
+    }
+}
@@ -0,0 +1,24 @@
+package com.staffjoy.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 请求体 gzip 解压配置
+ * 对应配置前缀：staffjoy.request-compression
+ *
+ * 只有调用方开启请求压缩（shift-service 的 spring.cloud.openfeign.compression.request.enabled）时才需要，
+ * 默认关闭，不注册解压过滤器，带 Content-Encoding: gzip 的请求体按原样交给后续处理（无法解析，返回 400）。
+ */
+@Data
+@ConfigurationProperties(prefix = "staffjoy.request-compression")
+public class RequestCompressionProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 解压后的请求体上限，超过时返回 413（防止压缩炸弹）
+     */
+    private DataSize maxInflatedSize = DataSize.ofMegabytes(2);
+}
@@ -1,5 +1,8 @@
 package com.staffjoy.user.controller;
 
+import com.staffjoy.common.dto.CursorPage;
+import com.staffjoy.user.dto.BatchUserRequest;
+import com.staffjoy.user.dto.BatchUserResponse;
 import com.staffjoy.user.model.User;
 import com.staffjoy.user.service.UserService;
 import jakarta.validation.Valid;
@@ -8,7 +11,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 /**
  * 用户REST API控制器
@@ -25,13 +27,17 @@ public class UserController {
     }
 
     /**
-     * 获取所有用户
-     * GET /api/users
+     * 游标分页获取所有用户
+     * GET /api/users?cursor=&limit=
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<CursorPage<User>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(userService.getAllUsers(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -46,13 +52,28 @@ public class UserController {
     }
 
     /**
-     * 根据公司ID获取用户列表
-     * GET /api/users/company/{companyId}
+     * 根据ID列表批量获取用户
+     * POST /api/users/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchUserResponse> getUsersByIds(@Valid @RequestBody BatchUserRequest request) {
+        BatchUserResponse response = userService.getUsersByIds(request.getIds());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 根据公司ID游标分页获取用户列表
+     * GET /api/users/company/{companyId}?cursor=&limit=
      */
     @GetMapping("/company/{companyId}")
-    public ResponseEntity<List<User>> getUsersByCompanyId(@PathVariable Long companyId) {
-        List<User> users = userService.getUsersByCompanyId(companyId);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<CursorPage<User>> getUsersByCompanyId(@PathVariable Long companyId,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(userService.getUsersByCompanyId(companyId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -0,0 +1,27 @@
+package com.staffjoy.user.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量查询用户请求
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUserRequest {
+
+    /**
+     * 单次最多查询的用户数量
+     */
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty(message = "用户ID列表不能为空")
+    @Size(max = MAX_IDS, message = "单次最多查询 " + MAX_IDS + " 个用户")
+    private List<Long> ids;
+}
@@ -0,0 +1,22 @@
+package com.staffjoy.user.dto;
+
+import com.staffjoy.user.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量查询用户响应
+ * users 为找到的用户，missingIds 为不存在的用户ID
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUserResponse {
+
+    private List<User> users;
+
+    private List<Long> missingIds;
+}
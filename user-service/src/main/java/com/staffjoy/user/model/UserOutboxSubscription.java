@@ -0,0 +1,46 @@
+package com.staffjoy.user.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱订阅方的投递状态
+ * 投递时对该行加锁，同一时刻只有一个 user-service 实例向该订阅方投递，保证事件按顺序送达
+ */
+@Entity
+@Table(name = "user_outbox_subscriptions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOutboxSubscription {
+
+    @Id
+    @Column(length = 100)
+    private String subscriber;
+
+    /**
+     * 连续投递失败次数，投递成功后清零
+     */
+    @Column(name = "failed_attempts", nullable = false)
+    private Integer failedAttempts = 0;
+
+    /**
+     * 失败后下次重试时间
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "last_delivered_at")
+    private LocalDateTime lastDeliveredAt;
+
+    public UserOutboxSubscription(String subscriber) {
+        this.subscriber = subscriber;
+    }
+}
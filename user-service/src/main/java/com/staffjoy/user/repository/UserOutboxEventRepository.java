@@ -0,0 +1,23 @@
+package com.staffjoy.user.repository;
+
+import com.staffjoy.user.model.UserOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 用户变更发件箱数据访问层
+ */
+@Repository
+public interface UserOutboxEventRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    /**
+     * 订阅方待投递的事件，按 id（即写入顺序）排序，使用 (subscriber, id) 索引
+     */
+    @Query("SELECT e FROM UserOutboxEvent e WHERE e.subscriber = :subscriber ORDER BY e.id")
+    List<UserOutboxEvent> findPending(@Param("subscriber") String subscriber, Pageable pageable);
+}
@@ -0,0 +1,29 @@
+package com.staffjoy.user.repository;
+
+import com.staffjoy.user.model.UserOutboxSubscription;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 发件箱订阅方投递状态数据访问层
+ */
+@Repository
+public interface UserOutboxSubscriptionRepository extends JpaRepository<UserOutboxSubscription, String> {
+
+    /**
+     * 锁住订阅方（SELECT ... FOR UPDATE SKIP LOCKED）
+     * 其它实例正在向该订阅方投递时返回空，本轮跳过
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM UserOutboxSubscription s WHERE s.subscriber = :subscriber")
+    Optional<UserOutboxSubscription> findForDelivery(@Param("subscriber") String subscriber);
+}
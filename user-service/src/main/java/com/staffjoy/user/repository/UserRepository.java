@@ -1,7 +1,10 @@
 package com.staffjoy.user.repository;
 
 import com.staffjoy.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -34,8 +37,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     /**
-     * 根据公司ID查找所有用户
+     * Keyset 分页：按 id 升序查询 afterId 之后的用户
+     * pageable 只用于限制条数（PageRequest.of(0, n)），返回 List 不会触发 count 查询
      */
-    List<User> findByCompanyId(Long companyId);
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset 分页：根据公司ID查找用户（索引 idx_users_company_id_id）
+     */
+    @Query("SELECT u FROM User u WHERE u.companyId = :companyId AND u.id > :afterId ORDER BY u.id")
+    List<User> findByCompanyIdAfter(@Param("companyId") Long companyId,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
 }
 
@@ -0,0 +1,36 @@
+package com.staffjoy.user.service;
+
+import com.staffjoy.user.config.OutboxProperties;
+import com.staffjoy.user.model.UserOutboxEvent;
+import com.staffjoy.user.repository.UserOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 记录用户变更到发件箱
+ * 必须在用户变更所在的事务内调用：用户变更回滚时事件一起回滚，提交后事件一定会被投递
+ */
+@Component
+public class UserChangeOutbox {
+
+    private final UserOutboxEventRepository eventRepository;
+    private final OutboxProperties properties;
+
+    @Autowired
+    public UserChangeOutbox(UserOutboxEventRepository eventRepository, OutboxProperties properties) {
+        this.eventRepository = eventRepository;
+        this.properties = properties;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, UserOutboxEvent.Type type) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (OutboxProperties.Subscriber subscriber : properties.getSubscribers()) {
+            eventRepository.save(new UserOutboxEvent(null, subscriber.getName(), userId, type, null));
+        }
+    }
+}
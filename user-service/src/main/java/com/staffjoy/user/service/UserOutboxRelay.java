@@ -0,0 +1,159 @@
+package com.staffjoy.user.service;
+
+import com.staffjoy.common.dto.UserChangeBatch;
+import com.staffjoy.user.config.OutboxProperties;
+import com.staffjoy.user.model.UserOutboxEvent;
+import com.staffjoy.user.model.UserOutboxSubscription;
+import com.staffjoy.user.repository.UserOutboxEventRepository;
+import com.staffjoy.user.repository.UserOutboxSubscriptionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 发件箱投递：定时把用户变更事件批量 POST 给订阅方
+ *
+ * - 顺序：每个订阅方的事件按 id 顺序投递，一批成功后才投递下一批；
+ *   投递期间持有订阅方行锁（SKIP LOCKED），多个实例不会同时向同一订阅方投递
+ * - 重试：投递失败时事件保留，按 initialBackoff 指数退避（上限 maxBackoff）后重试，至少投递一次
+ * - 订阅方需要幂等处理重复事件（例如使缓存失效）
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "staffjoy.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserOutboxRelay {
+
+    private static final String SOURCE = "user-service";
+
+    private final UserOutboxEventRepository eventRepository;
+    private final UserOutboxSubscriptionRepository subscriptionRepository;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final RestClient restClient;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public UserOutboxRelay(UserOutboxEventRepository eventRepository,
+                           UserOutboxSubscriptionRepository subscriptionRepository,
+                           OutboxProperties properties,
+                           TransactionTemplate transactionTemplate,
+                           RestClient.Builder outboxRestClientBuilder,
+                           MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.restClient = outboxRestClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 为配置的订阅方创建投递状态行（多个实例同时启动时，插入冲突直接忽略）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerSubscribers() {
+        for (OutboxProperties.Subscriber subscriber : properties.getSubscribers()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!subscriptionRepository.existsById(subscriber.getName())) {
+                        subscriptionRepository.save(new UserOutboxSubscription(subscriber.getName()));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.debug("发件箱订阅方 {} 已由其它实例注册", subscriber.getName());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${staffjoy.outbox.poll-interval:PT1S}")
+    public void poll() {
+        for (OutboxProperties.Subscriber subscriber : properties.getSubscribers()) {
+            try {
+                // 一批刚好投满时继续投递下一批，直到积压清空或投递失败
+                Integer delivered;
+                do {
+                    delivered = transactionTemplate.execute(status -> deliverBatch(subscriber));
+                } while (delivered != null && delivered == properties.getBatchSize());
+            } catch (RuntimeException e) {
+                log.warn("发件箱投递到 {} 出错: {}", subscriber.getName(), e.toString());
+            }
+        }
+    }
+
+    /**
+     * 在一个事务内投递一批事件，返回投递成功的事件数
+     */
+    private int deliverBatch(OutboxProperties.Subscriber subscriber) {
+        Optional<UserOutboxSubscription> locked = subscriptionRepository.findForDelivery(subscriber.getName());
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        UserOutboxSubscription subscription = locked.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (subscription.getNextAttemptAt() != null && now.isBefore(subscription.getNextAttemptAt())) {
+            return 0;
+        }
+
+        List<UserOutboxEvent> events = eventRepository.findPending(subscriber.getName(),
+                PageRequest.of(0, properties.getBatchSize()));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            restClient.post()
+                    .uri(subscriber.getUrl())
+                    .body(toBatch(events))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            int attempts = subscription.getFailedAttempts() + 1;
+            subscription.setFailedAttempts(attempts);
+            subscription.setNextAttemptAt(now.plus(backoff(attempts)));
+            subscription.setLastError(truncate(e.toString()));
+            meterRegistry.counter("user.outbox.failures", "subscriber", subscriber.getName()).increment();
+            log.warn("发件箱投递到 {} 失败（第 {} 次），{} 后重试: {}", subscriber.getName(), attempts,
+                    backoff(attempts), e.toString());
+            return 0;
+        }
+
+        eventRepository.deleteAllInBatch(events);
+        subscription.setFailedAttempts(0);
+        subscription.setNextAttemptAt(null);
+        subscription.setLastError(null);
+        subscription.setLastDeliveredAt(now);
+        meterRegistry.counter("user.outbox.delivered", "subscriber", subscriber.getName()).increment(events.size());
+        return events.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private static UserChangeBatch toBatch(List<UserOutboxEvent> events) {
+        return new UserChangeBatch(SOURCE, events.stream()
+                .map(event -> new UserChangeBatch.Event(event.getId(), event.getUserId(),
+                        event.getType().name(), event.getCreatedAt()))
+                .toList());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -1,26 +1,38 @@
 package com.staffjoy.user.service;
 
+import com.staffjoy.common.dto.CursorPage;
+import com.staffjoy.user.dto.BatchUserResponse;
 import com.staffjoy.user.model.User;
+import com.staffjoy.user.model.UserOutboxEvent;
 import com.staffjoy.user.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 用户业务逻辑层
  */
 @Service
+@Timed("staffjoy.service")
 @Transactional
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserChangeOutbox userChangeOutbox;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserChangeOutbox userChangeOutbox) {
         this.userRepository = userRepository;
+        this.userChangeOutbox = userChangeOutbox;
     }
 
     /**
@@ -37,7 +49,10 @@ public class UserService {
             throw new RuntimeException("邮箱已存在: " + user.getEmail());
         }
 
-        return userRepository.save(user);
+        // 订阅方可能缓存了"用户不存在"的结果，创建后同样需要通知
+        User saved = userRepository.save(user);
+        userChangeOutbox.record(saved.getId(), UserOutboxEvent.Type.CREATED);
+        return saved;
     }
 
     /**
@@ -48,6 +63,26 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * 根据ID列表批量获取用户
+     * 只执行一次 findAllById 查询，返回找到的用户以及不存在的ID
+     */
+    @Transactional(readOnly = true)
+    public BatchUserResponse getUsersByIds(Collection<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        uniqueIds.remove(null);
+        List<User> users = userRepository.findAllById(uniqueIds);
+
+        Set<Long> foundIds = users.stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        List<Long> missingIds = uniqueIds.stream()
+                .filter(id -> !foundIds.contains(id))
+                .collect(Collectors.toList());
+
+        return new BatchUserResponse(users, missingIds);
+    }
+
     /**
      * 根据用户名获取用户
      */
@@ -57,19 +92,25 @@ public class UserService {
     }
 
     /**
-     * 获取所有用户
+     * 游标分页获取所有用户
      */
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<User> getAllUsers(String cursor, Integer limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(userRepository.findPageAfter(afterId, PageRequest.of(0, size + 1)),
+                size, User::getId);
     }
 
     /**
-     * 根据公司ID获取用户列表
+     * 根据公司ID游标分页获取用户列表
      */
     @Transactional(readOnly = true)
-    public List<User> getUsersByCompanyId(Long companyId) {
-        return userRepository.findByCompanyId(companyId);
+    public CursorPage<User> getUsersByCompanyId(Long companyId, String cursor, Integer limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(userRepository.findByCompanyIdAfter(companyId, afterId, PageRequest.of(0, size + 1)),
+                size, User::getId);
     }
 
     /**
@@ -97,7 +138,9 @@ public class UserService {
             user.setCompanyId(userDetails.getCompanyId());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userChangeOutbox.record(id, UserOutboxEvent.Type.UPDATED);
+        return saved;
     }
 
     /**
@@ -108,6 +151,7 @@ public class UserService {
             throw new RuntimeException("用户不存在，ID: " + id);
         }
         userRepository.deleteById(id);
+        userChangeOutbox.record(id, UserOutboxEvent.Type.DELETED);
     }
 }
 
@@ -0,0 +1,5 @@
+-- Flyway Migration Script: Indexes for keyset pagination
+-- Version: V2
+-- Description: 为按公司游标分页（WHERE company_id = ? AND id > ? ORDER BY id LIMIT n）创建复合索引
+
+CREATE INDEX IF NOT EXISTS idx_users_company_id_id ON users(company_id, id);
@@ -0,0 +1,35 @@
+-- Flyway Migration Script: Transactional outbox for user changes
+-- Version: V3
+-- Description: 用户变更发件箱。用户创建/修改/删除时在同一事务内为每个订阅方写入一行，
+--              由 UserOutboxRelay 按 id 顺序批量投递，投递成功后删除
+
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    subscriber VARCHAR(100) NOT NULL,
+    user_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 按订阅方读取待投递事件（WHERE subscriber = ? ORDER BY id LIMIT n）
+CREATE INDEX IF NOT EXISTS idx_user_outbox_subscriber_id ON user_outbox(subscriber, id);
+
+-- 每个订阅方一行：投递时加锁（同一时刻只有一个实例向该订阅方投递，保证顺序），并记录重试状态
+CREATE TABLE IF NOT EXISTS user_outbox_subscriptions (
+    subscriber VARCHAR(100) PRIMARY KEY,
+    failed_attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    last_error VARCHAR(500),
+    last_delivered_at TIMESTAMP
+);
+
+-- 添加注释
+COMMENT ON TABLE user_outbox IS '用户变更发件箱';
+COMMENT ON COLUMN user_outbox.subscriber IS '订阅方名称（staffjoy.outbox.subscribers[].name）';
+COMMENT ON COLUMN user_outbox.user_id IS '发生变更的用户ID';
+COMMENT ON COLUMN user_outbox.event_type IS '变更类型：CREATED / UPDATED / DELETED';
+COMMENT ON TABLE user_outbox_subscriptions IS '发件箱订阅方投递状态';
+COMMENT ON COLUMN user_outbox_subscriptions.failed_attempts IS '连续投递失败次数';
+COMMENT ON COLUMN user_outbox_subscriptions.next_attempt_at IS '失败后下次重试时间（指数退避）';
+COMMENT ON COLUMN user_outbox_subscriptions.last_error IS '最近一次投递失败的原因';
+COMMENT ON COLUMN user_outbox_subscriptions.last_delivered_at IS '最近一次投递成功的时间';
@@ -0,0 +1,113 @@
+package com.staffjoy.user.config;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GzipRequestFilter 的解压、上限和错误请求处理
+ */
+class GzipRequestFilterTest {
+
+    private final GzipRequestFilter filter = new GzipRequestFilter(DataSize.ofKilobytes(64));
+
+    @Test
+    void passesInflatedBodyWithoutContentEncoding() throws Exception {
+        byte[] json = "{\"ids\":[1,2,3]}".getBytes(StandardCharsets.UTF_8);
+        AtomicReference<ServletRequest> seen = new AtomicReference<>();
+
+        MockHttpServletResponse response = filter(gzip(json), seen);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        ServletRequest request = seen.get();
+        assertThat(request.getInputStream().readAllBytes()).isEqualTo(json);
+        assertThat(request.getContentLength()).isEqualTo(json.length);
+        assertThat(((HttpServletRequest) request).getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void rejectsBodyInflatingPastLimit() throws Exception {
+        byte[] bomb = new byte[1024 * 1024];
+        AtomicReference<ServletRequest> seen = new AtomicReference<>();
+
+        MockHttpServletResponse response = filter(gzip(bomb), seen);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(seen.get()).isNull();
+    }
+
+    @Test
+    void rejectsMalformedGzipWithBadRequest() throws Exception {
+        AtomicReference<ServletRequest> seen = new AtomicReference<>();
+        assertThat(filter("not gzip".getBytes(StandardCharsets.UTF_8), seen).getStatus()).isEqualTo(400);
+
+        byte[] compressed = gzip("{\"ids\":[1,2,3]}".getBytes(StandardCharsets.UTF_8));
+        assertThat(filter(Arrays.copyOf(compressed, compressed.length - 10), seen).getStatus()).isEqualTo(400);
+        assertThat(seen.get()).isNull();
+    }
+
+    @Test
+    void supportsAsyncReads() throws Exception {
+        byte[] json = "{\"ids\":[1]}".getBytes(StandardCharsets.UTF_8);
+        AtomicReference<ServletRequest> seen = new AtomicReference<>();
+        filter(gzip(json), seen);
+
+        ServletInputStream input = seen.get().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[4];
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(buffer, 0, input.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        });
+
+        assertThat(allRead).isTrue();
+        assertThat(read.toByteArray()).isEqualTo(json);
+    }
+
+    private MockHttpServletResponse filter(byte[] body, AtomicReference<ServletRequest> seen) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(body);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> seen.set(req));
+        return response;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(data);
+        }
+        return compressed.toByteArray();
+    }
+}
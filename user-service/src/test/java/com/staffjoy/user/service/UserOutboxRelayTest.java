@@ -0,0 +1,159 @@
+package com.staffjoy.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.staffjoy.common.dto.UserChangeBatch;
+import com.staffjoy.common.internal.InternalApiProperties;
+import com.staffjoy.user.model.UserOutboxEvent;
+import com.staffjoy.user.model.UserOutboxSubscription;
+import com.staffjoy.user.repository.UserOutboxEventRepository;
+import com.staffjoy.user.repository.UserOutboxSubscriptionRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserOutboxRelay 投递行为
+ * 订阅方由进程内的 JDK HttpServer 代替（通过 SimpleDiscoveryClient 解析 http://shift-service），
+ * 定时轮询间隔设为 1 小时，测试中直接调用 poll()
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.flyway.enabled=false",
+        "staffjoy.outbox.poll-interval=PT1H",
+        "staffjoy.outbox.batch-size=2",
+        "staffjoy.outbox.initial-backoff=10s"
+})
+class UserOutboxRelayTest {
+
+    private static final String SUBSCRIBER = "shift-service";
+
+    private static HttpServer subscriber;
+    private static final List<UserChangeBatch> received = new CopyOnWriteArrayList<>();
+    private static final List<String> receivedTokens = new CopyOnWriteArrayList<>();
+    private static volatile int responseStatus = 204;
+
+    @Autowired
+    private UserOutboxRelay relay;
+
+    @Autowired
+    private UserChangeOutbox outbox;
+
+    @Autowired
+    private UserOutboxEventRepository eventRepository;
+
+    @Autowired
+    private UserOutboxSubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void subscriber(DynamicPropertyRegistry registry) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        subscriber = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        subscriber.createContext("/api/internal/user-cache/events", exchange -> {
+            UserChangeBatch batch = objectMapper.readValue(exchange.getRequestBody(), UserChangeBatch.class);
+            receivedTokens.add(exchange.getRequestHeaders().getFirst(InternalApiProperties.TOKEN_HEADER));
+            int status = responseStatus;
+            if (status < 300) {
+                received.add(batch);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        subscriber.start();
+        registry.add("spring.cloud.discovery.client.simple.instances.shift-service[0].uri",
+                () -> "http://localhost:" + subscriber.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopSubscriber() {
+        subscriber.stop(0);
+    }
+
+    @BeforeEach
+    void reset() {
+        received.clear();
+        receivedTokens.clear();
+        responseStatus = 204;
+        eventRepository.deleteAll();
+        subscriptionRepository.save(new UserOutboxSubscription(SUBSCRIBER));
+    }
+
+    @Test
+    void deliversEventsInOrderAndDeletesThem() {
+        record(1L, UserOutboxEvent.Type.CREATED);
+        record(2L, UserOutboxEvent.Type.CREATED);
+        record(1L, UserOutboxEvent.Type.UPDATED);
+
+        relay.poll();
+
+        // batch-size=2：一批投满后继续投递下一批
+        assertThat(received).hasSize(2);
+        assertThat(received).allSatisfy(batch -> assertThat(batch.getSource()).isEqualTo("user-service"));
+        List<UserChangeBatch.Event> events = received.stream().flatMap(batch -> batch.getEvents().stream()).toList();
+        assertThat(events).extracting(UserChangeBatch.Event::getUserId).containsExactly(1L, 2L, 1L);
+        assertThat(events).extracting(UserChangeBatch.Event::getType).containsExactly("CREATED", "CREATED", "UPDATED");
+        assertThat(events).extracting(UserChangeBatch.Event::getId).isSorted();
+        assertThat(receivedTokens).containsOnly("staffjoy-local-internal-token");
+
+        assertThat(eventRepository.count()).isZero();
+        UserOutboxSubscription subscription = subscriptionRepository.findById(SUBSCRIBER).orElseThrow();
+        assertThat(subscription.getFailedAttempts()).isZero();
+        assertThat(subscription.getLastDeliveredAt()).isNotNull();
+    }
+
+    @Test
+    void keepsEventsAndBacksOffAfterFailedPost() {
+        record(3L, UserOutboxEvent.Type.DELETED);
+        responseStatus = 503;
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.poll();
+
+        assertThat(received).isEmpty();
+        assertThat(eventRepository.count()).isEqualTo(1);
+        UserOutboxSubscription failed = subscriptionRepository.findById(SUBSCRIBER).orElseThrow();
+        assertThat(failed.getFailedAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(10));
+        assertThat(failed.getLastError()).contains("503");
+
+        // 退避期间不投递
+        responseStatus = 204;
+        relay.poll();
+        assertThat(received).isEmpty();
+        assertThat(eventRepository.count()).isEqualTo(1);
+
+        // 退避时间到达后重新投递同一批事件
+        UserOutboxSubscription backedOff = subscriptionRepository.findById(SUBSCRIBER).orElseThrow();
+        backedOff.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        subscriptionRepository.save(backedOff);
+        relay.poll();
+
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).getEvents()).extracting(UserChangeBatch.Event::getUserId).containsExactly(3L);
+        assertThat(eventRepository.count()).isZero();
+        UserOutboxSubscription recovered = subscriptionRepository.findById(SUBSCRIBER).orElseThrow();
+        assertThat(recovered.getFailedAttempts()).isZero();
+        assertThat(recovered.getNextAttemptAt()).isNull();
+        assertThat(recovered.getLastError()).isNull();
+    }
+
+    private void record(Long userId, UserOutboxEvent.Type type) {
+        transactionTemplate.executeWithoutResult(status -> outbox.record(userId, type));
+    }
+}